@@ -0,0 +1,110 @@
+package com.sms.benchmark;
+
+import com.sms.encoding.Gsm7;
+import com.sms.model.Message;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Packed GSM-7 content storage: CPU cost against the bytes saved.
+ *
+ * - pack / unpack: Gsm7 packing alone, done once per stored message and
+ *   once per loaded one
+ * - utf8Encode / utf8Decode: what storing the same content as text costs
+ *   (the JDBC driver converts it to and from UTF-8)
+ * - setContent / getContent: the Message codec layer around it
+ *
+ * The setup prints the stored size of each text, UTF-8 text against
+ * packed septets, e.g. a 160 character SMS takes 140 bytes instead of 160.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentStorageBenchmark {
+
+    /**
+     * otp: a one-time code, single: a full single SMS with accents and an
+     * extension character, long: the longest content (10 segments)
+     */
+    @Param({"otp", "single", "long"})
+    String text;
+
+    private String content;
+    private byte[] packed;
+    private byte[] utf8;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        content = switch (text) {
+            case "otp" -> "Your verification code is 482913";
+            case "single" -> fill("Grüße! Your order #1042 ships today, café pickup at 10€. ", 160);
+            default -> fill("Reminder: your appointment is tomorrow at 09:30. Reply YES to confirm. ", 1530);
+        };
+        packed = Gsm7.pack(content);
+        utf8 = content.getBytes(StandardCharsets.UTF_8);
+        message = new Message("+14155550100", "+306912345678", content);
+
+        System.out.printf("%n%s: %d characters, text %d bytes, packed %d bytes (%.1f%% saved)%n",
+            text, content.length(), utf8.length, packed.length, 100.0 * (utf8.length - packed.length) / utf8.length);
+    }
+
+    /**
+     * Repeats the sentence up to the given number of septets.
+     */
+    private static String fill(String sentence, int septets) {
+        StringBuilder content = new StringBuilder();
+        int used = 0;
+        for (int i = 0; used + Gsm7.septets(sentence.charAt(i % sentence.length())) <= septets; i++) {
+            char c = sentence.charAt(i % sentence.length());
+            content.append(c);
+            used += Gsm7.septets(c);
+        }
+        return content.toString();
+    }
+
+    @Benchmark
+    public byte[] pack() {
+        return Gsm7.pack(content);
+    }
+
+    @Benchmark
+    public String unpack() {
+        return Gsm7.unpack(packed);
+    }
+
+    @Benchmark
+    public byte[] utf8Encode() {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String utf8Decode() {
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Message setContent() {
+        message.setContent(content);
+        return message;
+    }
+
+    @Benchmark
+    public String getContent() {
+        return message.getContent();
+    }
+}
@@ -0,0 +1,52 @@
+package com.sms.benchmark;
+
+import com.sms.dto.SmsRequest;
+import com.sms.exception.GlobalExceptionHandler;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.core.Response;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Error path: GlobalExceptionHandler.toResponse for a request that fails
+ * Bean Validation (three violations), as returned for every rejected send.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private ConstraintViolationException validationFailure;
+
+    @Setup
+    public void setUp() {
+        Validator validator = Validation.byDefaultProvider()
+            .configure()
+            .messageInterpolator(new ParameterMessageInterpolator())
+            .buildValidatorFactory()
+            .getValidator();
+        SmsRequest invalidRequest = new SmsRequest("12-34", "", "x".repeat(161));
+        validationFailure = new ConstraintViolationException(validator.validate(invalidRequest));
+    }
+
+    @Benchmark
+    public Response validationFailure() {
+        return handler.toResponse(validationFailure);
+    }
+}
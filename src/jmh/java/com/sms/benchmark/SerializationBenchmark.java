@@ -0,0 +1,124 @@
+package com.sms.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sms.dto.SmsResponse;
+import com.sms.messaging.SmsMessageEvent;
+import com.sms.model.Message;
+import com.sms.model.MessageStatus;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mapping and serialization on the send, history and delivery paths.
+ *
+ * - fromEntity: Message to SmsResponse (every response)
+ * - serializeResponses: Jackson list of SmsResponse, as a history page
+ *   of pageSize items is written
+ * - encodeEvent / decodeEvent: SmsMessageEvent to the queue body (what the
+ *   RabbitMQ connector does) and back to the fields the consumer reads
+ *
+ * The ObjectMappers are configured like the Quarkus ones (ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * History page of pageSize responses, only used by serializeResponses.
+     */
+    @State(Scope.Benchmark)
+    public static class HistoryPage {
+
+        @Param({"1", "50", "500"})
+        int pageSize;
+
+        List<SmsResponse> items;
+
+        @Setup
+        public void setUp() {
+            items = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                items.add(SmsResponse.fromEntity(message(i)));
+            }
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private Message message;
+    private SmsMessageEvent event;
+    private Buffer encodedEvent;
+
+    @Setup
+    public void setUp() throws Exception {
+        message = message(1L);
+        event = SmsMessageEvent.fromEntity(message, null);
+        encodedEvent = encode(event);
+    }
+
+    /**
+     * What the Quarkus Vert.x JSON codec does for the connector: the
+     * application ObjectMapper writes the payload into a Buffer.
+     */
+    private Buffer encode(SmsMessageEvent event) throws Exception {
+        return Buffer.buffer(objectMapper.writeValueAsBytes(event));
+    }
+
+    private static Message message(long id) {
+        Message message = new Message("+14155550100", "+306912345678", "Your verification code is " + (100000 + id));
+        message.id = id;
+        message.status = MessageStatus.DELIVERED;
+        message.createdAt = LocalDateTime.of(2025, 1, 1, 12, 0).plusSeconds(id);
+        message.updatedAt = message.createdAt.plusNanos(250_000_000);
+        return message;
+    }
+
+    @Benchmark
+    public SmsResponse fromEntity() {
+        return SmsResponse.fromEntity(message);
+    }
+
+    @Benchmark
+    public byte[] serializeResponses(HistoryPage page) throws Exception {
+        return objectMapper.writeValueAsBytes(page.items);
+    }
+
+    @Benchmark
+    public Buffer encodeEvent() throws Exception {
+        return encode(event);
+    }
+
+    @Benchmark
+    public void decodeEvent(Blackhole blackhole) {
+        JsonObject json = new JsonObject(encodedEvent);
+        blackhole.consume(json.getLong("messageId"));
+        blackhole.consume(json.getString("sourceNumber"));
+        blackhole.consume(json.getString("destinationNumber"));
+        blackhole.consume(json.getString("content"));
+        blackhole.consume(LocalDateTime.parse(json.getString("createdAt")));
+    }
+}
@@ -0,0 +1,80 @@
+package com.sms.benchmark;
+
+import com.sms.dto.SmsRequest;
+import com.sms.validation.PhoneNumberValidator;
+import com.sms.validation.PhoneNumbers;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request validation: runs for every message of every send request.
+ *
+ * - phoneNumber*: the @ValidPhoneNumber check alone
+ * - parsePhoneNumber: E.164 normalization done for every stored message
+ * - validate*: full Bean Validation of an SmsRequest (what @Valid and the
+ *   batch endpoint do), valid and with three violations
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final PhoneNumberValidator phoneNumberValidator = new PhoneNumberValidator();
+    private Validator validator;
+    private SmsRequest validRequest;
+    private SmsRequest invalidRequest;
+
+    @Setup
+    public void setUp() {
+        // ParameterMessageInterpolator: same messages, no Expression Language needed outside Quarkus
+        validator = Validation.byDefaultProvider()
+            .configure()
+            .messageInterpolator(new ParameterMessageInterpolator())
+            .buildValidatorFactory()
+            .getValidator();
+        validRequest = new SmsRequest("+14155550100", "+306912345678", "Your verification code is 482913");
+        invalidRequest = new SmsRequest("12-34", "", "x".repeat(1531));
+    }
+
+    @Benchmark
+    public boolean phoneNumberValid() {
+        return phoneNumberValidator.isValid("+306912345678", null);
+    }
+
+    @Benchmark
+    public boolean phoneNumberInvalid() {
+        return phoneNumberValidator.isValid("+30 691 234", null);
+    }
+
+    @Benchmark
+    public long parsePhoneNumber() {
+        return PhoneNumbers.parse("+306912345678");
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<SmsRequest>> validateValidRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<SmsRequest>> validateInvalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
@@ -0,0 +1,44 @@
+package com.sms.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+
+/**
+ * Micrometer configuration.
+ * 
+ * Timers only export count/sum/max by default, which can't tell where
+ * the p99 goes. This filter publishes histogram buckets for the REST
+ * endpoints (http.server.requests, per method and URI template) and all
+ * of our own timers (sms.*), so Prometheus can compute any percentile
+ * over any time range and across instances:
+ * 
+ * histogram_quantile(0.99, sum by (le, uri) (rate(http_server_requests_seconds_bucket[5m])))
+ */
+public class MetricsConfig {
+
+    @Produces
+    @Singleton
+    public MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER) {
+                    return config;
+                }
+                if (!id.getName().startsWith("http.server.requests") && !id.getName().startsWith("sms.")) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                    .percentilesHistogram(true)
+                    .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                    .maximumExpectedValue((double) Duration.ofMinutes(1).toNanos())
+                    .build()
+                    .merge(config);
+            }
+        };
+    }
+}
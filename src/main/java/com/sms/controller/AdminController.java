@@ -0,0 +1,135 @@
+package com.sms.controller;
+
+import com.sms.dto.DeadLetterStatus;
+import com.sms.dto.RecoveryJobStatus;
+import com.sms.dto.RedriveRequest;
+import com.sms.dto.ReplayRequest;
+import com.sms.messaging.DeadLetterQueue;
+import com.sms.service.FailedMessageRedrive;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * REST Controller for operating the delivery pipeline after an incident.
+ *
+ * - Dead-letter queues: depth, replay into the original queues
+ * - FAILED messages: bulk re-drive by time range
+ *
+ * Both recoveries run in the background at a limited rate, the POST
+ * returns 202 Accepted with the started job and the GET shows its
+ * progress. One job of each kind runs at a time (409 Conflict otherwise).
+ */
+@Path("/api/admin")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class AdminController {
+
+    private final DeadLetterQueue deadLetterQueue;
+    private final FailedMessageRedrive redrive;
+
+    @Inject
+    public AdminController(DeadLetterQueue deadLetterQueue, FailedMessageRedrive redrive) {
+        this.deadLetterQueue = deadLetterQueue;
+        this.redrive = redrive;
+    }
+
+    /**
+     * Dead-letter queue depths and the last replay.
+     *
+     * GET /api/admin/dlq
+     *
+     * @return 200 OK with the number of dead-lettered messages per queue
+     */
+    @GET
+    @Path("/dlq")
+    public Response getDeadLetters() {
+        DeadLetterStatus status = new DeadLetterStatus(deadLetterQueue.depths(), deadLetterQueue.status());
+        return Response.ok(status).build();
+    }
+
+    /**
+     * Replay dead-lettered messages into their original queues.
+     *
+     * POST /api/admin/dlq/replay
+     *
+     * @param request optional selection (messageIds), limit and rate, replays everything if absent
+     * @return 202 Accepted with the started replay, or 409 Conflict if one is running
+     */
+    @POST
+    @Path("/dlq/replay")
+    public Response replayDeadLetters(@Valid ReplayRequest request) {
+        ReplayRequest replay = request == null ? new ReplayRequest() : request;
+        RecoveryJobStatus job = deadLetterQueue.replay(replay.getMessageIds(), replay.getLimit(), replay.getRate());
+        return Response.accepted(job).build();
+    }
+
+    /**
+     * Stop the running replay.
+     *
+     * DELETE /api/admin/dlq/replay
+     *
+     * @return 200 OK with the cancelled replay, or 404 Not Found if there was none
+     */
+    @DELETE
+    @Path("/dlq/replay")
+    public Response cancelReplay() {
+        return jobResponse(deadLetterQueue.cancel());
+    }
+
+    /**
+     * Re-drive the FAILED messages created in a time range.
+     *
+     * POST /api/admin/redrive
+     *
+     * @param request time range (from inclusive, to exclusive) and optional rate
+     * @return 202 Accepted with the started re-drive, or 409 Conflict if one is running
+     */
+    @POST
+    @Path("/redrive")
+    public Response redriveFailed(@Valid @NotNull(message = "Request body is required") RedriveRequest request) {
+        RecoveryJobStatus job = redrive.start(request.getFrom(), request.getTo(), request.getRate());
+        return Response.accepted(job).build();
+    }
+
+    /**
+     * Progress of the running or last re-drive.
+     *
+     * GET /api/admin/redrive
+     *
+     * @return 200 OK with the re-drive, or 404 Not Found if there was none
+     */
+    @GET
+    @Path("/redrive")
+    public Response getRedrive() {
+        return jobResponse(redrive.status());
+    }
+
+    /**
+     * Stop the running re-drive.
+     *
+     * DELETE /api/admin/redrive
+     *
+     * @return 200 OK with the cancelled re-drive, or 404 Not Found if there was none
+     */
+    @DELETE
+    @Path("/redrive")
+    public Response cancelRedrive() {
+        return jobResponse(redrive.cancel());
+    }
+
+    private static Response jobResponse(RecoveryJobStatus job) {
+        if (job == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(job).build();
+    }
+}
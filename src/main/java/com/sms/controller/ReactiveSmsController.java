@@ -0,0 +1,171 @@
+package com.sms.controller;
+
+import com.sms.dto.HistoryQuery;
+import com.sms.dto.SmsRequest;
+import com.sms.model.MessageStatus;
+import com.sms.service.ReactiveSmsService;
+import com.sms.service.SmsService;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.BeanParam;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST Controller for SMS operations, reactive mode.
+ * 
+ * Replaces SmsController when built with sms.api.mode=reactive: same
+ * paths, bodies and status codes, but the endpoints return Uni and run
+ * on the event loop (see ReactiveSmsServiceImpl for what stays blocking).
+ * 
+ * The NDJSON export is still written by the blocking SmsService, from a
+ * worker thread (StreamingOutput).
+ */
+@Path("/api/sms")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@IfBuildProperty(name = "sms.api.mode", stringValue = "reactive")
+public class ReactiveSmsController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final ReactiveSmsService reactiveSmsService;
+    private final SmsService smsService;
+
+    @Inject
+    public ReactiveSmsController(ReactiveSmsService reactiveSmsService, SmsService smsService) {
+        this.reactiveSmsService = reactiveSmsService;
+        this.smsService = smsService;
+    }
+
+    /**
+     * GET /api/sms
+     */
+    @GET
+    public Response getApiInfo() {
+        return Response.ok(java.util.Map.of(
+            "service", "SMS Messaging Service",
+            "version", "1.0.0",
+            "status", "running",
+            "mode", "reactive",
+            "endpoints", java.util.List.of(
+                "POST /api/sms/send - Send a message",
+                "POST /api/sms/send/batch - Send many messages",
+                "GET /api/sms/{id} - Get message by ID",
+                "GET /api/sms/stats - Live delivery statistics",
+                "GET /api/sms/phone/{phoneNumber} - Get messages for phone (paginated)",
+                "GET /api/sms/from/{sourceNumber} - Get sent messages (paginated)",
+                "GET /api/sms/to/{destinationNumber} - Get received messages (paginated)",
+                "GET /api/sms/export?from=&to=&status= - Export messages (NDJSON)"
+            )
+        )).build();
+    }
+
+    /**
+     * POST /api/sms/send
+     * 
+     * @see SmsController#sendMessage
+     */
+    @POST
+    @Path("/send")
+    public Uni<Response> sendMessage(@Valid SmsRequest request, @HeaderParam(IDEMPOTENCY_KEY) String idempotencyKey) {
+        return reactiveSmsService.sendMessage(request, idempotencyKey)
+            .map(response -> Response.status(Response.Status.CREATED).entity(response).build());
+    }
+
+    /**
+     * POST /api/sms/send/batch
+     * 
+     * @see SmsController#sendBatch
+     */
+    @POST
+    @Path("/send/batch")
+    public Uni<Response> sendBatch(List<SmsRequest> requests) {
+        return reactiveSmsService.sendMessages(requests)
+            .map(response -> Response.ok(response).build());
+    }
+
+    /**
+     * GET /api/sms/{id}
+     * 
+     * The status poll: a cache hit is answered without leaving the event loop.
+     * 
+     * @see SmsController#getMessageById
+     */
+    @GET
+    @Path("/{id}")
+    public Uni<Response> getMessageById(@PathParam("id") Long id) {
+        return reactiveSmsService.getMessageById(id)
+            .map(response -> Response.ok(response).build());
+    }
+
+    /**
+     * GET /api/sms/phone/{phoneNumber}?limit=&cursor=&since=&until=&status=
+     */
+    @GET
+    @Path("/phone/{phoneNumber}")
+    public Uni<Response> getMessagesByPhoneNumber(@PathParam("phoneNumber") String phoneNumber, @BeanParam HistoryQuery query) {
+        return reactiveSmsService.getMessagesByPhoneNumber(phoneNumber, query)
+            .map(messages -> Response.ok(messages).build());
+    }
+
+    /**
+     * GET /api/sms/from/{sourceNumber}?limit=&cursor=&since=&until=&status=
+     */
+    @GET
+    @Path("/from/{sourceNumber}")
+    public Uni<Response> getMessagesBySourceNumber(@PathParam("sourceNumber") String sourceNumber, @BeanParam HistoryQuery query) {
+        return reactiveSmsService.getMessagesBySourceNumber(sourceNumber, query)
+            .map(messages -> Response.ok(messages).build());
+    }
+
+    /**
+     * GET /api/sms/to/{destinationNumber}?limit=&cursor=&since=&until=&status=
+     */
+    @GET
+    @Path("/to/{destinationNumber}")
+    public Uni<Response> getMessagesByDestinationNumber(@PathParam("destinationNumber") String destinationNumber, @BeanParam HistoryQuery query) {
+        return reactiveSmsService.getMessagesByDestinationNumber(destinationNumber, query)
+            .map(messages -> Response.ok(messages).build());
+    }
+
+    /**
+     * GET /api/sms/stats
+     */
+    @GET
+    @Path("/stats")
+    public Uni<Response> getStats() {
+        return reactiveSmsService.getStats()
+            .map(stats -> Response.ok(stats).build());
+    }
+
+    /**
+     * GET /api/sms/export?from=&to=&status=
+     * 
+     * @see SmsController#exportMessages
+     */
+    @GET
+    @Path("/export")
+    @Produces(NDJSON)
+    public Response exportMessages(@QueryParam("from") LocalDateTime from,
+                                   @QueryParam("to") LocalDateTime to,
+                                   @QueryParam("status") MessageStatus status) {
+        StreamingOutput stream = output -> smsService.exportMessages(from, to, status, output);
+        return Response.ok(stream).build();
+    }
+}
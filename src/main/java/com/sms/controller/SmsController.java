@@ -1,18 +1,29 @@
 package com.sms.controller;
 
+import com.sms.dto.BatchSendResponse;
+import com.sms.dto.HistoryQuery;
+import com.sms.dto.MessagePage;
 import com.sms.dto.SmsRequest;
 import com.sms.dto.SmsResponse;
+import com.sms.dto.StatsResponse;
+import com.sms.model.MessageStatus;
 import com.sms.service.SmsService;
+import io.quarkus.arc.properties.UnlessBuildProperty;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -25,12 +36,23 @@ import java.util.List;
  * Annotations:
  * - @Path: Base URL path for all endpoints in this controller
  * - @Produces/@Consumes: Specifies JSON as the data format
+ * 
+ * Blocking mode (the default), replaced by ReactiveSmsController when
+ * built with sms.api.mode=reactive.
  */
 @Path("/api/sms")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@UnlessBuildProperty(name = "sms.api.mode", stringValue = "reactive", enableIfMissing = true)
 public class SmsController {
 
+    /**
+     * Newline-delimited JSON, one object per line.
+     */
+    private static final String NDJSON = "application/x-ndjson";
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final SmsService smsService;
 
     @Inject
@@ -53,10 +75,13 @@ public class SmsController {
             "status", "running",
             "endpoints", java.util.List.of(
                 "POST /api/sms/send - Send a message",
+                "POST /api/sms/send/batch - Send many messages",
                 "GET /api/sms/{id} - Get message by ID",
-                "GET /api/sms/phone/{phoneNumber} - Get messages for phone",
-                "GET /api/sms/from/{sourceNumber} - Get sent messages",
-                "GET /api/sms/to/{destinationNumber} - Get received messages"
+                "GET /api/sms/stats - Live delivery statistics",
+                "GET /api/sms/phone/{phoneNumber} - Get messages for phone (paginated)",
+                "GET /api/sms/from/{sourceNumber} - Get sent messages (paginated)",
+                "GET /api/sms/to/{destinationNumber} - Get received messages (paginated)",
+                "GET /api/sms/export?from=&to=&status= - Export messages (NDJSON)"
             )
         )).build();
     }
@@ -66,16 +91,39 @@ public class SmsController {
      * 
      * POST /api/sms/send
      * 
+     * Clients that retry should send an Idempotency-Key header (e.g. a
+     * UUID per message): a retry with the same key returns the original
+     * message instead of sending it again.
+     * 
      * @param request the SMS request body
+     * @param idempotencyKey optional key identifying this message across retries
      * @return 201 Created with message details, or 400 Bad Request if validation fails
      */
     @POST
     @Path("/send")
-    public Response sendMessage(@Valid SmsRequest request) {
-        SmsResponse response = smsService.sendMessage(request);
+    public Response sendMessage(@Valid SmsRequest request, @HeaderParam(IDEMPOTENCY_KEY) String idempotencyKey) {
+        SmsResponse response = smsService.sendMessage(request, idempotencyKey);
         return Response.status(Response.Status.CREATED).entity(response).build();
     }
 
+    /**
+     * Send many SMS messages in one request.
+     * 
+     * POST /api/sms/send/batch
+     * 
+     * No @Valid here: items are validated one by one in the service so
+     * invalid items are reported per item instead of failing the batch.
+     * 
+     * @param requests the SMS request bodies
+     * @return 200 OK with one result per item, or 400 Bad Request if the batch is empty or too large
+     */
+    @POST
+    @Path("/send/batch")
+    public Response sendBatch(List<SmsRequest> requests) {
+        BatchSendResponse response = smsService.sendMessages(requests);
+        return Response.ok(response).build();
+    }
+
     /**
      * Get a message by ID.
      * 
@@ -92,47 +140,88 @@ public class SmsController {
     }
 
     /**
-     * Get all messages for a phone number (as sender or recipient).
+     * Get messages for a phone number (as sender or recipient), one page at a time.
      * 
-     * GET /api/sms/phone/{phoneNumber}
+     * GET /api/sms/phone/{phoneNumber}?limit=&cursor=&since=&until=&status=
      * 
      * @param phoneNumber the phone number to search
-     * @return 200 OK with list of messages
+     * @param query page size, cursor and filters
+     * @return 200 OK with one page of messages, newest first
      */
     @GET
     @Path("/phone/{phoneNumber}")
-    public Response getMessagesByPhoneNumber(@PathParam("phoneNumber") String phoneNumber) {
-        List<SmsResponse> messages = smsService.getMessagesByPhoneNumber(phoneNumber);
+    public Response getMessagesByPhoneNumber(@PathParam("phoneNumber") String phoneNumber, @BeanParam HistoryQuery query) {
+        MessagePage messages = smsService.getMessagesByPhoneNumber(phoneNumber, query);
         return Response.ok(messages).build();
     }
 
     /**
-     * Get all messages sent from a specific number.
+     * Get messages sent from a specific number, one page at a time.
      * 
-     * GET /api/sms/from/{sourceNumber}
+     * GET /api/sms/from/{sourceNumber}?limit=&cursor=&since=&until=&status=
      * 
      * @param sourceNumber the sender's phone number
-     * @return 200 OK with list of messages
+     * @param query page size, cursor and filters
+     * @return 200 OK with one page of messages, newest first
      */
     @GET
     @Path("/from/{sourceNumber}")
-    public Response getMessagesBySourceNumber(@PathParam("sourceNumber") String sourceNumber) {
-        List<SmsResponse> messages = smsService.getMessagesBySourceNumber(sourceNumber);
+    public Response getMessagesBySourceNumber(@PathParam("sourceNumber") String sourceNumber, @BeanParam HistoryQuery query) {
+        MessagePage messages = smsService.getMessagesBySourceNumber(sourceNumber, query);
         return Response.ok(messages).build();
     }
 
     /**
-     * Get all messages sent to a specific number.
+     * Get messages sent to a specific number, one page at a time.
      * 
-     * GET /api/sms/to/{destinationNumber}
+     * GET /api/sms/to/{destinationNumber}?limit=&cursor=&since=&until=&status=
      * 
      * @param destinationNumber the recipient's phone number
-     * @return 200 OK with list of messages
+     * @param query page size, cursor and filters
+     * @return 200 OK with one page of messages, newest first
      */
     @GET
     @Path("/to/{destinationNumber}")
-    public Response getMessagesByDestinationNumber(@PathParam("destinationNumber") String destinationNumber) {
-        List<SmsResponse> messages = smsService.getMessagesByDestinationNumber(destinationNumber);
+    public Response getMessagesByDestinationNumber(@PathParam("destinationNumber") String destinationNumber, @BeanParam HistoryQuery query) {
+        MessagePage messages = smsService.getMessagesByDestinationNumber(destinationNumber, query);
         return Response.ok(messages).build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Live delivery statistics.
+     * 
+     * GET /api/sms/stats
+     * 
+     * Served from in-memory counters, cheap enough to poll every second.
+     * 
+     * @return 200 OK with counts per status, per error reason and per minute
+     */
+    @GET
+    @Path("/stats")
+    public Response getStats() {
+        StatsResponse stats = smsService.getStats();
+        return Response.ok(stats).build();
+    }
+
+    /**
+     * Export message history as newline-delimited JSON.
+     * 
+     * GET /api/sms/export?from=&to=&status=
+     * 
+     * All parameters are optional: from (inclusive) and to (exclusive) are
+     * ISO date-times on createdAt, status filters by message status.
+     * The response is streamed while the rows are read, one SmsResponse
+     * per line, oldest first.
+     * 
+     * @return 200 OK with the NDJSON stream
+     */
+    @GET
+    @Path("/export")
+    @Produces(NDJSON)
+    public Response exportMessages(@QueryParam("from") LocalDateTime from,
+                                   @QueryParam("to") LocalDateTime to,
+                                   @QueryParam("status") MessageStatus status) {
+        StreamingOutput stream = output -> smsService.exportMessages(from, to, status, output);
+        return Response.ok(stream).build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.sms.dto;
+
+import java.util.List;
+
+/**
+ * Result for a single item of a batch send request.
+ *
+ * Each item is either ACCEPTED (persisted and queued, message is set)
+ * or REJECTED (validation failed or over the rate limit, errors is set). The index points back
+ * to the position of the item in the request array.
+ */
+public class BatchItemResult {
+
+    /**
+     * Outcome of a single batch item.
+     */
+    public enum Outcome {
+        ACCEPTED,
+        REJECTED
+    }
+
+    private int index;
+    private Outcome outcome;
+    private SmsResponse message;
+    private List<String> errors;
+
+    // Default constructor
+    public BatchItemResult() {
+    }
+
+    // All-args constructor
+    public BatchItemResult(int index, Outcome outcome, SmsResponse message, List<String> errors) {
+        this.index = index;
+        this.outcome = outcome;
+        this.message = message;
+        this.errors = errors;
+    }
+
+    public static BatchItemResult accepted(int index, SmsResponse message) {
+        return new BatchItemResult(index, Outcome.ACCEPTED, message, null);
+    }
+
+    public static BatchItemResult rejected(int index, List<String> errors) {
+        return new BatchItemResult(index, Outcome.REJECTED, null, errors);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public SmsResponse getMessage() {
+        return message;
+    }
+
+    public void setMessage(SmsResponse message) {
+        this.message = message;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
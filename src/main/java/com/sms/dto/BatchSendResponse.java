@@ -0,0 +1,51 @@
+package com.sms.dto;
+
+import java.util.List;
+
+/**
+ * DTO returned by the batch send endpoint.
+ *
+ * Contains one result per request item (in request order) plus
+ * summary counters so clients don't have to count themselves.
+ */
+public class BatchSendResponse {
+    private int accepted;
+    private int rejected;
+    private List<BatchItemResult> results;
+
+    // Default constructor
+    public BatchSendResponse() {
+    }
+
+    // All-args constructor
+    public BatchSendResponse(int accepted, int rejected, List<BatchItemResult> results) {
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    // Getters and Setters
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchItemResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,41 @@
+package com.sms.dto;
+
+import java.util.Map;
+
+/**
+ * DTO returned by the dead-letter endpoint.
+ * 
+ * - depths: dead-lettered messages per original queue
+ * - replay: the running or last replay (null if there was none)
+ */
+public class DeadLetterStatus {
+    private Map<String, Long> depths;
+    private RecoveryJobStatus replay;
+
+    // Default constructor
+    public DeadLetterStatus() {
+    }
+
+    // All-args constructor
+    public DeadLetterStatus(Map<String, Long> depths, RecoveryJobStatus replay) {
+        this.depths = depths;
+        this.replay = replay;
+    }
+
+    // Getters and Setters
+    public Map<String, Long> getDepths() {
+        return depths;
+    }
+
+    public void setDepths(Map<String, Long> depths) {
+        this.depths = depths;
+    }
+
+    public RecoveryJobStatus getReplay() {
+        return replay;
+    }
+
+    public void setReplay(RecoveryJobStatus replay) {
+        this.replay = replay;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sms.dto;
+
+import com.sms.model.MessageStatus;
+import jakarta.ws.rs.QueryParam;
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of the message history endpoints (/phone, /from, /to).
+ * 
+ * Example: GET /api/sms/from/+306912345678?limit=100&status=FAILED&since=2025-01-01T00:00:00
+ * 
+ * Pages are ordered newest first. To get the next page, pass the "next"
+ * value of the previous MessagePage as cursor (with the same filters).
+ */
+public class HistoryQuery {
+
+    /**
+     * Page size, capped at sms.history.max-page-size
+     */
+    @QueryParam("limit")
+    private Integer limit;
+
+    /**
+     * Opaque cursor from a previous page
+     */
+    @QueryParam("cursor")
+    private String cursor;
+
+    /**
+     * Only messages created at or after this time
+     */
+    @QueryParam("since")
+    private LocalDateTime since;
+
+    /**
+     * Only messages created before this time
+     */
+    @QueryParam("until")
+    private LocalDateTime until;
+
+    /**
+     * Only messages with this status
+     */
+    @QueryParam("status")
+    private MessageStatus status;
+
+    // Default constructor (required for parameter binding)
+    public HistoryQuery() {
+    }
+
+    // Getters and Setters
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public void setSince(LocalDateTime since) {
+        this.since = since;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public void setUntil(LocalDateTime until) {
+        this.until = until;
+    }
+
+    public MessageStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(MessageStatus status) {
+        this.status = status;
+    }
+}
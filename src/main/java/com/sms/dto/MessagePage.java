@@ -0,0 +1,40 @@
+package com.sms.dto;
+
+import java.util.List;
+
+/**
+ * One page of message history.
+ * 
+ * next is an opaque cursor for the following page, null on the last page.
+ */
+public class MessagePage {
+    private List<SmsResponse> items;
+    private String next;
+
+    // Default constructor
+    public MessagePage() {
+    }
+
+    // All-args constructor
+    public MessagePage(List<SmsResponse> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    // Getters and Setters
+    public List<SmsResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<SmsResponse> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,58 @@
+package com.sms.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Message counts of one minute window in the statistics.
+ */
+public class MinuteStats {
+    private LocalDateTime minute;
+    private long sent;
+    private long delivered;
+    private long failed;
+
+    // Default constructor
+    public MinuteStats() {
+    }
+
+    // All-args constructor
+    public MinuteStats(LocalDateTime minute, long sent, long delivered, long failed) {
+        this.minute = minute;
+        this.sent = sent;
+        this.delivered = delivered;
+        this.failed = failed;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getMinute() {
+        return minute;
+    }
+
+    public void setMinute(LocalDateTime minute) {
+        this.minute = minute;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public void setSent(long sent) {
+        this.sent = sent;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public void setDelivered(long delivered) {
+        this.delivered = delivered;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+}
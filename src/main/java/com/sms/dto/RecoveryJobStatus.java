@@ -0,0 +1,105 @@
+package com.sms.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO describing a bulk recovery job (DLQ replay or FAILED re-drive).
+ *
+ * - state: RUNNING, COMPLETED, CANCELLED or FAILED
+ * - scanned: dead-lettered messages (replay) or message IDs (re-drive) looked at so far
+ * - requeued: messages sent back into the pipeline so far
+ * - rate: requeue limit in messages per second (0 = unlimited)
+ * - error: why the job failed (null otherwise)
+ */
+public class RecoveryJobStatus {
+    private String type;
+    private String state;
+    private long scanned;
+    private long requeued;
+    private int rate;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    // Default constructor
+    public RecoveryJobStatus() {
+    }
+
+    // All-args constructor
+    public RecoveryJobStatus(String type, String state, long scanned, long requeued, int rate,
+                             LocalDateTime startedAt, LocalDateTime finishedAt, String error) {
+        this.type = type;
+        this.state = state;
+        this.scanned = scanned;
+        this.requeued = requeued;
+        this.rate = rate;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public void setScanned(long scanned) {
+        this.scanned = scanned;
+    }
+
+    public long getRequeued() {
+        return requeued;
+    }
+
+    public void setRequeued(long requeued) {
+        this.requeued = requeued;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
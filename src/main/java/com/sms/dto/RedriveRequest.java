@@ -0,0 +1,58 @@
+package com.sms.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for re-driving FAILED messages created in a time range.
+ */
+public class RedriveRequest {
+
+    /**
+     * createdAt lower bound (inclusive).
+     */
+    @NotNull(message = "From is required")
+    private LocalDateTime from;
+
+    /**
+     * createdAt upper bound (exclusive).
+     */
+    @NotNull(message = "To is required")
+    private LocalDateTime to;
+
+    /**
+     * Messages per second (0 = unlimited), the configured default if not set.
+     */
+    @PositiveOrZero(message = "Rate cannot be negative")
+    private Integer rate;
+
+    // Default constructor
+    public RedriveRequest() {
+    }
+
+    // Getters and Setters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public Integer getRate() {
+        return rate;
+    }
+
+    public void setRate(Integer rate) {
+        this.rate = rate;
+    }
+}
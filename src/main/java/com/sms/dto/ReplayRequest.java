@@ -0,0 +1,57 @@
+package com.sms.dto;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.util.Set;
+
+/**
+ * DTO for replaying dead-lettered messages. All fields are optional.
+ */
+public class ReplayRequest {
+
+    /**
+     * Only replay the queue messages of these messages, all if empty.
+     */
+    private Set<Long> messageIds = Set.of();
+
+    /**
+     * Replay at most this many messages.
+     */
+    @Positive(message = "Limit must be positive")
+    private Long limit;
+
+    /**
+     * Messages per second (0 = unlimited), the configured default if not set.
+     */
+    @PositiveOrZero(message = "Rate cannot be negative")
+    private Integer rate;
+
+    // Default constructor
+    public ReplayRequest() {
+    }
+
+    // Getters and Setters
+    public Set<Long> getMessageIds() {
+        return messageIds;
+    }
+
+    public void setMessageIds(Set<Long> messageIds) {
+        this.messageIds = messageIds == null ? Set.of() : messageIds;
+    }
+
+    public Long getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Long limit) {
+        this.limit = limit;
+    }
+
+    public Integer getRate() {
+        return rate;
+    }
+
+    public void setRate(Integer rate) {
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,47 @@
+package com.sms.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Reads a client timestamp into the server's local time, the way times
+ * are stored (LocalDateTime columns in the server zone).
+ *
+ * With an offset ("2025-06-01T09:00:00+02:00", "2025-06-01T07:00:00Z")
+ * the instant is converted to the server zone once, here. Without one
+ * ("2025-06-01T09:00:00") the time is taken as server local time, as
+ * before offsets were accepted.
+ */
+public class ServerTimeDeserializer extends StdDeserializer<LocalDateTime> {
+
+    public ServerTimeDeserializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        String text = parser.getValueAsString();
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parse(text.trim());
+            if (!parsed.isSupported(ChronoField.OFFSET_SECONDS)) {
+                return LocalDateTime.from(parsed);
+            }
+            return OffsetDateTime.from(parsed).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeException e) {
+            return (LocalDateTime) context.handleWeirdStringValue(LocalDateTime.class, text,
+                "expected an ISO-8601 date-time, with or without offset");
+        }
+    }
+}
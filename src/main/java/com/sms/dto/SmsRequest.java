@@ -1,8 +1,11 @@
 package com.sms.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.sms.validation.ValidPhoneNumber;
+import com.sms.validation.ValidSmsContent;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Size;
+import com.sms.model.MessagePriority;
+import java.time.LocalDateTime;
 
 /**
  * DTO for incoming SMS send requests.
@@ -32,12 +35,28 @@ public class SmsRequest{
 
     /**
      * The SMS message content.
-     * Standard SMS is limited to 160 characters.
+     * Longer than one SMS (160 GSM-7 / 70 Unicode characters) it is sent
+     * as a concatenated message of up to 10 segments.
      */
     @NotBlank(message = "Message content is required")
-    @Size(max = 160, message = "Message content cannot exceed 160 characters")
+    @ValidSmsContent
     private String content;
 
+    /**
+     * Optional time to send the message at, e.g. "2025-06-01T09:00:00+02:00"
+     * or "2025-06-01T07:00:00Z", held in server local time (without an
+     * offset the time already is server local time).
+     * Missing or in the past: the message is sent right away.
+     */
+    @JsonDeserialize(using = ServerTimeDeserializer.class)
+    private LocalDateTime sendAt;
+
+    /**
+     * Optional delivery lane: HIGH for time-critical messages (OTP codes),
+     * NORMAL (default) for everything else.
+     */
+    private MessagePriority priority;
+
     // Default constructor (required for JSON deserialization)
     public SmsRequest() {
     }
@@ -74,6 +93,22 @@ public class SmsRequest{
         this.content = content;
     }
 
+    public LocalDateTime getSendAt() {
+        return sendAt;
+    }
+
+    public void setSendAt(LocalDateTime sendAt) {
+        this.sendAt = sendAt;
+    }
+
+    public MessagePriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(MessagePriority priority) {
+        this.priority = priority;
+    }
+
 }
 
 
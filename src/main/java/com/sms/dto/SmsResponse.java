@@ -1,6 +1,7 @@
 package com.sms.dto;
 
 import com.sms.model.Message;
+import com.sms.model.MessagePriority;
 import com.sms.model.MessageStatus;
 import java.time.LocalDateTime;
 
@@ -16,9 +17,12 @@ public class SmsResponse {
     private String destinationNumber;
     private String content;
     private MessageStatus status;
+    private MessagePriority priority;
     private String errorMessage;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private LocalDateTime sendAt;
+    private int segments;
 
     // Default constructor
     public SmsResponse() {
@@ -26,16 +30,20 @@ public class SmsResponse {
 
     // All-args constructor
     public SmsResponse(Long id, String sourceNumber, String destinationNumber, 
-                       String content, MessageStatus status, String errorMessage,
-                       LocalDateTime createdAt, LocalDateTime updatedAt) {
+                       String content, MessageStatus status, MessagePriority priority, String errorMessage,
+                       LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime sendAt,
+                       int segments) {
         this.id = id;
         this.sourceNumber = sourceNumber;
         this.destinationNumber = destinationNumber;
         this.content = content;
         this.status = status;
+        this.priority = priority;
         this.errorMessage = errorMessage;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.sendAt = sendAt;
+        this.segments = segments;
     }
 
     /**
@@ -52,11 +60,14 @@ public class SmsResponse {
             message.id,
             message.sourceNumber,
             message.destinationNumber,
-            message.content,
+            message.getContent(),
             message.status,
+            message.priority == null ? MessagePriority.NORMAL : message.priority,
             message.errorMessage,
             message.createdAt,
-            message.updatedAt
+            message.updatedAt,
+            message.sendAt,
+            message.segments == null ? 1 : message.segments
         );
     }
 
@@ -101,6 +112,14 @@ public class SmsResponse {
         this.status = status;
     }
 
+    public MessagePriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(MessagePriority priority) {
+        this.priority = priority;
+    }
+
     public String getErrorMessage() {
         return errorMessage;
     }
@@ -125,4 +144,19 @@ public class SmsResponse {
         this.updatedAt = updatedAt;
     }
 
+    public LocalDateTime getSendAt() {
+        return sendAt;
+    }
+
+    public void setSendAt(LocalDateTime sendAt) {
+        this.sendAt = sendAt;
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+
+    public void setSegments(int segments) {
+        this.segments = segments;
+    }
 }
@@ -0,0 +1,54 @@
+package com.sms.dto;
+
+import com.sms.model.MessageStatus;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO returned by the statistics endpoint.
+ * 
+ * - byStatus: number of messages currently in each status
+ * - byError: number of FAILED messages per error reason
+ * - perMinute: sent/delivered/failed per minute, newest first
+ */
+public class StatsResponse {
+    private Map<MessageStatus, Long> byStatus;
+    private Map<String, Long> byError;
+    private List<MinuteStats> perMinute;
+
+    // Default constructor
+    public StatsResponse() {
+    }
+
+    // All-args constructor
+    public StatsResponse(Map<MessageStatus, Long> byStatus, Map<String, Long> byError, List<MinuteStats> perMinute) {
+        this.byStatus = byStatus;
+        this.byError = byError;
+        this.perMinute = perMinute;
+    }
+
+    // Getters and Setters
+    public Map<MessageStatus, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<MessageStatus, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<String, Long> getByError() {
+        return byError;
+    }
+
+    public void setByError(Map<String, Long> byError) {
+        this.byError = byError;
+    }
+
+    public List<MinuteStats> getPerMinute() {
+        return perMinute;
+    }
+
+    public void setPerMinute(List<MinuteStats> perMinute) {
+        this.perMinute = perMinute;
+    }
+}
@@ -0,0 +1,185 @@
+package com.sms.encoding;
+
+import java.util.Arrays;
+
+/**
+ * The GSM 03.38 7-bit default alphabet.
+ *
+ * Every character of the basic table is one septet, the characters of
+ * the extension table (e.g. '€', '{', '[') are sent as ESCAPE plus their
+ * code, two septets. Any other character forces the message to UCS-2.
+ *
+ * Lookups go through one table indexed by the char (up to '€'), so
+ * checking or counting a text allocates nothing.
+ *
+ * pack() / unpack() convert a text to the packed form (8 septets in 7
+ * bytes), used to store GSM-7 content in 7/8 of the space.
+ */
+public final class Gsm7 {
+
+    /**
+     * Septet that switches the next one to the extension table.
+     */
+    public static final int ESCAPE = 0x1B;
+
+    /**
+     * Flag on code(): the character is in the extension table.
+     */
+    public static final int EXTENDED = 0x80;
+
+    /**
+     * code() of a character that isn't in the alphabet.
+     */
+    public static final int NONE = -1;
+
+    // Basic table, in septet order (0x1B is ESCAPE, never matched)
+    private static final String BASIC =
+        "@£$¥èéùìòÇ\nØø\rÅå"
+        + "Δ_ΦΓΛΩΠΨΣΘΞ\u001BÆæßÉ"
+        + " !\"#¤%&'()*+,-./"
+        + "0123456789:;<=>?"
+        + "¡ABCDEFGHIJKLMNO"
+        + "PQRSTUVWXYZÄÖÑÜ§"
+        + "¿abcdefghijklmno"
+        + "pqrstuvwxyzäöñüà";
+
+    // Extension table: characters and their septet after ESCAPE
+    private static final String EXTENSION = "\f^{}\\[~]|€";
+    private static final int[] EXTENSION_CODES = {0x0A, 0x14, 0x28, 0x29, 0x2F, 0x3C, 0x3D, 0x3E, 0x40, 0x65};
+
+    private static final short[] CODES = new short['€' + 1];
+
+    // Decoding: character of each extension septet, 0 if unused
+    private static final char[] EXTENSION_CHARS = new char[128];
+
+    static {
+        Arrays.fill(CODES, (short) NONE);
+        for (int code = 0; code < BASIC.length(); code++) {
+            if (code != ESCAPE) {
+                CODES[BASIC.charAt(code)] = (short) code;
+            }
+        }
+        for (int i = 0; i < EXTENSION.length(); i++) {
+            CODES[EXTENSION.charAt(i)] = (short) (EXTENDED | EXTENSION_CODES[i]);
+            EXTENSION_CHARS[EXTENSION_CODES[i]] = EXTENSION.charAt(i);
+        }
+    }
+
+    private Gsm7() {
+    }
+
+    /**
+     * @param c a character
+     * @return its septet, with EXTENDED set for extension characters, or NONE
+     */
+    public static int code(char c) {
+        return c < CODES.length ? CODES[c] : NONE;
+    }
+
+    /**
+     * @param c a character
+     * @return septets needed for the character (1 or 2), 0 if it isn't in the alphabet
+     */
+    public static int septets(char c) {
+        int code = code(c);
+        if (code == NONE) {
+            return 0;
+        }
+        return (code & EXTENDED) != 0 ? 2 : 1;
+    }
+
+    /**
+     * @param text the text to encode
+     * @return septets needed for the whole text, or -1 if it needs UCS-2
+     */
+    public static int septets(CharSequence text) {
+        int total = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            int septets = septets(text.charAt(i));
+            if (septets == 0) {
+                return -1;
+            }
+            total += septets;
+        }
+        return total;
+    }
+
+    /**
+     * Pack a text into septets, least significant bit first (GSM 03.38
+     * packing): n septets take (7n + 7) / 8 bytes, extension characters
+     * two septets. When the last byte has 7 bits left over they hold an
+     * ESCAPE, which unpack() drops, so the length isn't stored.
+     *
+     * @param text the text to pack, every character in the alphabet
+     * @return the packed septets
+     * @throws IllegalArgumentException if the text needs UCS-2
+     */
+    public static byte[] pack(CharSequence text) {
+        int septets = septets(text);
+        if (septets < 0) {
+            throw new IllegalArgumentException("Text is not GSM-7");
+        }
+
+        byte[] packed = new byte[(septets * 7 + 7) / 8];
+        int bit = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            int code = code(text.charAt(i));
+            if ((code & EXTENDED) != 0) {
+                bit = put(packed, bit, ESCAPE);
+                code &= ~EXTENDED;
+            }
+            bit = put(packed, bit, code);
+        }
+        if (packed.length * 8 - bit == 7) {
+            put(packed, bit, ESCAPE);
+        }
+        return packed;
+    }
+
+    /**
+     * @param packed septets written by pack()
+     * @return the text
+     */
+    public static String unpack(byte[] packed) {
+        int septets = packed.length * 8 / 7;
+        StringBuilder text = new StringBuilder(septets);
+        boolean escaped = false;
+
+        for (int bit = 0, end = septets * 7; bit < end; bit += 7) {
+            int index = bit >> 3;
+            int shift = bit & 7;
+            int septet = (packed[index] & 0xFF) >> shift;
+            if (shift > 1) {
+                septet |= (packed[index + 1] & 0xFF) << (8 - shift);
+            }
+            septet &= 0x7F;
+
+            if (escaped) {
+                // Unknown extension septets fall back to the basic table (GSM 03.38)
+                char c = EXTENSION_CHARS[septet];
+                text.append(c != 0 ? c : BASIC.charAt(septet));
+                escaped = false;
+            } else if (septet == ESCAPE) {
+                escaped = true;
+            } else {
+                text.append(BASIC.charAt(septet));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Write one septet at the bit offset, spilling into the next byte.
+     *
+     * @return the offset of the next septet
+     */
+    private static int put(byte[] packed, int bit, int septet) {
+        int index = bit >> 3;
+        int shift = bit & 7;
+        packed[index] |= (byte) (septet << shift);
+        if (shift > 1) {
+            packed[index + 1] |= (byte) (septet >> (8 - shift));
+        }
+        return bit + 7;
+    }
+}
@@ -0,0 +1,101 @@
+package com.sms.encoding;
+
+/**
+ * Splits message content into SMS segments.
+ *
+ * A text that fits one SMS (160 GSM-7 septets / 70 UCS-2 code units) is
+ * one segment. A longer one is sent as concatenated parts of at most 153
+ * septets / 67 code units (see SmsEncoding). Parts never split a
+ * character: an extension character (ESCAPE + septet) or a surrogate
+ * pair always stays in one part.
+ *
+ * Runs on every send: count() works on the CharSequence without any
+ * allocation, ends() allocates only the result array.
+ */
+public final class Segments {
+
+    /**
+     * Most segments a message may have.
+     */
+    public static final int MAX_SEGMENTS = 10;
+
+    /**
+     * Longest content that can fit MAX_SEGMENTS (plain GSM-7 text).
+     */
+    public static final int MAX_CONTENT_LENGTH = MAX_SEGMENTS * 153;
+
+    private Segments() {
+    }
+
+    /**
+     * @param text the message content
+     * @return number of SMS segments needed (1 for an empty text)
+     */
+    public static int count(CharSequence text) {
+        int septets = Gsm7.septets(text);
+        SmsEncoding encoding = septets < 0 ? SmsEncoding.UCS2 : SmsEncoding.GSM7;
+        if ((septets < 0 ? text.length() : septets) <= encoding.singleLimit()) {
+            return 1;
+        }
+
+        int parts = 0;
+        for (int start = 0; start < text.length(); start = partEnd(text, encoding, start)) {
+            parts++;
+        }
+        return parts;
+    }
+
+    /**
+     * Part boundaries: part n (1-based) is text[ends[n - 2], ends[n - 1]),
+     * the first part starts at 0.
+     *
+     * @param text the message content
+     * @return end offset (exclusive) of every segment, one entry for a single SMS
+     */
+    public static int[] ends(CharSequence text) {
+        int count = count(text);
+        if (count == 1) {
+            return new int[] {text.length()};
+        }
+
+        SmsEncoding encoding = SmsEncoding.of(text);
+        int[] ends = new int[count];
+        int start = 0;
+        for (int part = 0; part < count; part++) {
+            start = partEnd(text, encoding, start);
+            ends[part] = start;
+        }
+        return ends;
+    }
+
+    /**
+     * @return end offset (exclusive) of the part starting at start
+     */
+    private static int partEnd(CharSequence text, SmsEncoding encoding, int start) {
+        int length = text.length();
+        int limit = encoding.partLimit();
+        int used = 0;
+        int i = start;
+
+        while (i < length) {
+            char c = text.charAt(i);
+            int units;
+            int chars = 1;
+            if (encoding == SmsEncoding.GSM7) {
+                units = Gsm7.septets(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                units = 2;
+                chars = 2;
+            } else {
+                units = 1;
+            }
+
+            if (used + units > limit) {
+                break;
+            }
+            used += units;
+            i += chars;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,52 @@
+package com.sms.encoding;
+
+/**
+ * Character encoding of an SMS, with its segment sizes.
+ *
+ * A single SMS carries 140 bytes: 160 GSM-7 septets or 70 UCS-2 code
+ * units. A concatenated message spends 6 of them on the User Data Header
+ * (8-bit reference, part count, part number), leaving 153 septets or 67
+ * code units per part.
+ */
+public enum SmsEncoding {
+
+    /**
+     * GSM 03.38 default alphabet (see Gsm7), limits in septets
+     */
+    GSM7(160, 153),
+
+    /**
+     * UTF-16 code units, for any text outside the GSM alphabet
+     */
+    UCS2(70, 67);
+
+    private final int singleLimit;
+    private final int partLimit;
+
+    SmsEncoding(int singleLimit, int partLimit) {
+        this.singleLimit = singleLimit;
+        this.partLimit = partLimit;
+    }
+
+    /**
+     * @return size limit of a message sent as one SMS
+     */
+    public int singleLimit() {
+        return singleLimit;
+    }
+
+    /**
+     * @return size limit of one part of a concatenated message
+     */
+    public int partLimit() {
+        return partLimit;
+    }
+
+    /**
+     * @param text the message content
+     * @return GSM7 if every character is in the GSM alphabet, UCS2 otherwise
+     */
+    public static SmsEncoding of(CharSequence text) {
+        return Gsm7.septets(text) < 0 ? UCS2 : GSM7;
+    }
+}
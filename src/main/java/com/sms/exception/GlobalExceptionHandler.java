@@ -3,6 +3,7 @@ package com.sms.exception;
 import com.sms.dto.ErrorResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
@@ -38,6 +39,16 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
             return handleInvalidMessage((InvalidMessageException) exception);
         }
 
+        // Handle rate limited sends
+        if (exception instanceof RateLimitExceededException) {
+            return handleRateLimitExceeded((RateLimitExceededException) exception);
+        }
+
+        // Handle a recovery job started twice
+        if (exception instanceof RecoveryJobRunningException) {
+            return handleRecoveryJobRunning((RecoveryJobRunningException) exception);
+        }
+
         // Handle all other exceptions (unexpected errors)
         return handleGenericException(exception);
     }
@@ -81,6 +92,29 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
             .build();
     }
 
+    private Response handleRateLimitExceeded(RateLimitExceededException exception) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            Response.Status.TOO_MANY_REQUESTS.getStatusCode(),
+            exception.getMessage()
+        );
+
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, exception.getRetryAfterSeconds())
+            .entity(errorResponse)
+            .build();
+    }
+
+    private Response handleRecoveryJobRunning(RecoveryJobRunningException exception) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            Response.Status.CONFLICT.getStatusCode(),
+            exception.getMessage()
+        );
+
+        return Response.status(Response.Status.CONFLICT)
+            .entity(errorResponse)
+            .build();
+    }
+
     private Response handleGenericException(Exception exception) {
         // Log the full exception for debugging (in production, use proper logging)
         exception.printStackTrace();
@@ -0,0 +1,21 @@
+package com.sms.exception;
+
+/**
+ * Exception thrown when a send request is over a rate limit.
+ *
+ * Mapped to 429 Too Many Requests, retryAfterSeconds goes into the
+ * Retry-After header.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
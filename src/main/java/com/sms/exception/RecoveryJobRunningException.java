@@ -0,0 +1,14 @@
+package com.sms.exception;
+
+/**
+ * Exception thrown when a bulk recovery job is started while the
+ * previous one of the same kind is still running.
+ *
+ * Mapped to 409 Conflict.
+ */
+public class RecoveryJobRunningException extends RuntimeException {
+
+    public RecoveryJobRunningException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.sms.gateway;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * SPI for handing a message to an SMS carrier.
+ * 
+ * Implementations must not block the calling thread: the consumer calls
+ * deliver() straight from the messaging thread and only reacts when the
+ * returned stage completes. Carrier adapters should use non-blocking
+ * clients (or their own executor) for the actual network call.
+ * 
+ * The in-process SimulatedDeliveryGateway is used unless another
+ * DeliveryGateway bean is present.
+ */
+public interface DeliveryGateway {
+
+    /**
+     * Deliver a message to the carrier.
+     * 
+     * Carrier rejections complete normally with a failed DeliveryResult.
+     * Completing exceptionally means the outcome is unknown (the queue
+     * message is nacked and no status is written).
+     * 
+     * @param request the message to deliver
+     * @return completes with the carrier's answer
+     */
+    CompletionStage<DeliveryResult> deliver(DeliveryRequest request);
+}
@@ -0,0 +1,29 @@
+package com.sms.gateway;
+
+/**
+ * Message handed to a DeliveryGateway.
+ * 
+ * A long message is handed over one part at a time: the carrier builds
+ * the concatenation UDH from reference, partCount and partNumber, and
+ * the handset joins the parts with the same reference. A single SMS is
+ * part 1 of 1.
+ * 
+ * @param messageId ID of the Message row (used as client reference at the carrier)
+ * @param sourceNumber the sender's phone number
+ * @param destinationNumber the recipient's phone number
+ * @param content the SMS text (of this part)
+ * @param partNumber position of the part, 1-based
+ * @param partCount number of parts of the message
+ * @param reference concatenation reference (8 bit), the same for all parts of a message
+ */
+public record DeliveryRequest(long messageId, String sourceNumber, String destinationNumber, String content,
+                              int partNumber, int partCount, int reference) {
+
+    /**
+     * @param messageId ID of the Message row
+     * @return the 8-bit concatenation reference of the message
+     */
+    public static int referenceOf(long messageId) {
+        return (int) (messageId & 0xFF);
+    }
+}
@@ -0,0 +1,36 @@
+package com.sms.gateway;
+
+/**
+ * Carrier answer for a DeliveryRequest.
+ * 
+ * Adapters decide whether a failure is worth another attempt: temporary
+ * conditions (timeouts, throttling, handset unreachable) are transient
+ * and retried with backoff, everything else (invalid number, blocked
+ * content) is permanent and the message is FAILED right away.
+ * 
+ * @param delivered true if the carrier accepted the message
+ * @param errorMessage description of why delivery failed, null if delivered
+ * @param transientFailure true if the same message may succeed when tried again later
+ */
+public record DeliveryResult(boolean delivered, String errorMessage, boolean transientFailure) {
+
+    private static final DeliveryResult SUCCESS = new DeliveryResult(true, null, false);
+
+    public static DeliveryResult success() {
+        return SUCCESS;
+    }
+
+    /**
+     * Permanent failure, the message is not tried again.
+     */
+    public static DeliveryResult failure(String errorMessage) {
+        return new DeliveryResult(false, errorMessage, false);
+    }
+
+    /**
+     * Transient failure, the message is tried again after a backoff.
+     */
+    public static DeliveryResult transientFailure(String errorMessage) {
+        return new DeliveryResult(false, errorMessage, true);
+    }
+}
@@ -0,0 +1,167 @@
+package com.sms.gateway;
+
+import io.quarkus.arc.DefaultBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jboss.logging.Logger;
+
+/**
+ * In-process carrier simulator.
+ * 
+ * Answers every delivery after a sampled latency without blocking any
+ * thread: the answer is completed by a single scheduler thread when the
+ * latency has passed, so thousands of deliveries can be in flight.
+ * 
+ * Behaviour is configured through SimulatorConfig:
+ * - Latency distribution (fixed, uniform, lognormal) plus an optional tail
+ * - Success rate and weighted error mix, some reasons reported as transient
+ * - Throughput cap: each delivery reserves the next free carrier slot,
+ *   so above the cap deliveries queue up just like at a real carrier
+ * 
+ * @DefaultBean: replaced as soon as a real DeliveryGateway adapter is present.
+ */
+@DefaultBean
+@ApplicationScoped
+public class SimulatedDeliveryGateway implements DeliveryGateway {
+
+    private static final Logger LOG = Logger.getLogger(SimulatedDeliveryGateway.class);
+
+    @Inject
+    SimulatorConfig config;
+
+    private ScheduledExecutorService scheduler;
+
+    private String[] errorReasons;
+    private boolean[] transientErrors;
+    private int[] cumulativeErrorWeights;
+
+    /**
+     * Nanos between two carrier slots (0 = no throughput cap).
+     */
+    private long slotIntervalNanos;
+
+    /**
+     * Next free carrier slot (System.nanoTime based).
+     */
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        parseErrorMix(config.errors());
+        slotIntervalNanos = config.maxThroughput() > 0 ? TimeUnit.SECONDS.toNanos(1) / config.maxThroughput() : 0;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("carrier-simulator").daemon().factory());
+
+        LOG.infof("Carrier simulator: latency=%s, successRate=%.2f, maxThroughput=%d/s",
+            config.latency().distribution(), config.successRate(), config.maxThroughput());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public CompletionStage<DeliveryResult> deliver(DeliveryRequest request) {
+        long delayNanos = waitForSlot() + sampleLatency();
+        DeliveryResult result = sampleResult();
+
+        CompletableFuture<DeliveryResult> answer = new CompletableFuture<>();
+        scheduler.schedule(() -> answer.complete(result), delayNanos, TimeUnit.NANOSECONDS);
+        return answer;
+    }
+
+    /**
+     * Reserve the next carrier slot (lock-free).
+     * 
+     * @return nanos until the reserved slot starts
+     */
+    private long waitForSlot() {
+        if (slotIntervalNanos == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long slot;
+        long previous;
+        do {
+            previous = nextSlot.get();
+            slot = Math.max(previous, now);
+        } while (!nextSlot.compareAndSet(previous, slot + slotIntervalNanos));
+        return slot - now;
+    }
+
+    private long sampleLatency() {
+        SimulatorConfig.Latency latency = config.latency();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long nanos = switch (latency.distribution()) {
+            case FIXED -> latency.fixed().toNanos();
+            case UNIFORM -> {
+                long min = latency.min().toNanos();
+                long max = latency.max().toNanos();
+                yield max > min ? random.nextLong(min, max) : min;
+            }
+            case LOGNORMAL -> (long) (latency.median().toNanos() * Math.exp(latency.sigma() * random.nextGaussian()));
+        };
+
+        if (latency.tailProbability() > 0 && random.nextDouble() < latency.tailProbability()) {
+            nanos += latency.tail().toNanos();
+        }
+        return nanos;
+    }
+
+    private DeliveryResult sampleResult() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < config.successRate()) {
+            return DeliveryResult.success();
+        }
+
+        int pick = random.nextInt(cumulativeErrorWeights[cumulativeErrorWeights.length - 1]);
+        for (int i = 0; i < cumulativeErrorWeights.length; i++) {
+            if (pick < cumulativeErrorWeights[i]) {
+                return failure(i);
+            }
+        }
+        return failure(errorReasons.length - 1);
+    }
+
+    private DeliveryResult failure(int reason) {
+        return transientErrors[reason]
+            ? DeliveryResult.transientFailure(errorReasons[reason])
+            : DeliveryResult.failure(errorReasons[reason]);
+    }
+
+    /**
+     * Parse "weight:reason" entries into cumulative weights for sampling.
+     */
+    private void parseErrorMix(List<String> entries) {
+        errorReasons = new String[entries.size()];
+        transientErrors = new boolean[entries.size()];
+        cumulativeErrorWeights = new int[entries.size()];
+
+        int total = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            String entry = entries.get(i);
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid simulator error entry (expected weight:reason): " + entry);
+            }
+            total += Integer.parseInt(entry.substring(0, separator).trim());
+            errorReasons[i] = entry.substring(separator + 1).trim();
+            transientErrors[i] = config.transientErrors().contains(errorReasons[i]);
+            cumulativeErrorWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Simulator error mix needs at least one entry with a positive weight");
+        }
+    }
+}
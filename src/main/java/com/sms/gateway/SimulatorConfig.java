@@ -0,0 +1,95 @@
+package com.sms.gateway;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration of the SimulatedDeliveryGateway (prefix sms.gateway.simulator).
+ * 
+ * Example, lognormal latency with a 1% tail of 5 extra seconds, capped at 200 msg/s:
+ * sms.gateway.simulator.latency.distribution=lognormal
+ * sms.gateway.simulator.latency.median=250ms
+ * sms.gateway.simulator.latency.sigma=0.5
+ * sms.gateway.simulator.latency.tail-probability=0.01
+ * sms.gateway.simulator.latency.tail=5s
+ * sms.gateway.simulator.max-throughput=200
+ */
+@ConfigMapping(prefix = "sms.gateway.simulator")
+public interface SimulatorConfig {
+
+    /**
+     * Share of messages the carrier accepts (0.0 - 1.0).
+     */
+    @WithDefault("0.8")
+    double successRate();
+
+    /**
+     * Error mix for failed deliveries, as "weight:reason" entries.
+     * Example: 3:Network timeout,1:Invalid destination number
+     */
+    @WithDefault("1:Carrier rejected message")
+    List<String> errors();
+
+    /**
+     * Error reasons (of the mix above) that are transient: the consumer
+     * retries them, the other reasons fail the message for good.
+     */
+    @WithDefault("Network timeout")
+    List<String> transientErrors();
+
+    /**
+     * Maximum deliveries per second the carrier accepts, 0 for no cap.
+     * Deliveries above the cap are queued (their latency grows), not rejected.
+     */
+    @WithDefault("0")
+    int maxThroughput();
+
+    Latency latency();
+
+    interface Latency {
+
+        @WithDefault("uniform")
+        Distribution distribution();
+
+        /**
+         * Latency for the FIXED distribution.
+         */
+        @WithDefault("300ms")
+        Duration fixed();
+
+        /**
+         * Bounds for the UNIFORM distribution.
+         */
+        @WithDefault("100ms")
+        Duration min();
+
+        @WithDefault("500ms")
+        Duration max();
+
+        /**
+         * Median and shape (sigma of the underlying normal) for the LOGNORMAL distribution.
+         */
+        @WithDefault("250ms")
+        Duration median();
+
+        @WithDefault("0.5")
+        double sigma();
+
+        /**
+         * Probability that a delivery gets the extra tail latency on top (any distribution).
+         */
+        @WithDefault("0")
+        double tailProbability();
+
+        @WithDefault("5s")
+        Duration tail();
+    }
+
+    enum Distribution {
+        FIXED,
+        UNIFORM,
+        LOGNORMAL
+    }
+}
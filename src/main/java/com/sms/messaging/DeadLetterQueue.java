@@ -0,0 +1,341 @@
+package com.sms.messaging;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.GetResponse;
+import com.sms.dto.RecoveryJobStatus;
+import com.sms.exception.RecoveryJobRunningException;
+import com.sms.service.RecoveryJob;
+import io.quarkus.credentials.CredentialsProvider;
+import io.quarkus.runtime.ShutdownEvent;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.literal.NamedLiteral;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import javax.net.ssl.SSLContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Inspection and replay of the dead-letter queues.
+ *
+ * Queue messages the consumer can't process (no messageId, the gateway
+ * or the status write failed) are nacked, and RabbitMQ moves them to the
+ * dead-letter queue of their queue (<queue>.dlq, see auto-bind-dlq in
+ * application.properties) instead of dropping them or redelivering them
+ * forever.
+ *
+ * Replay runs on its own thread over a plain AMQP channel in confirm mode:
+ * - Only the messages in a DLQ when its replay starts are read (basic.get),
+ *   HIGH priority DLQ first
+ * - Selected messages (all, or the given message IDs) are published
+ *   straight back into their original queue, at most `rate` per second,
+ *   and removed from the DLQ once the broker confirmed the publish
+ * - The others stay unacked during the scan and are put back into the DLQ
+ *   afterwards, in their original order
+ *
+ * A message whose publish was confirmed but whose DLQ ack was lost (e.g.
+ * connection drop) is replayed twice, the consumer's PENDING status guard
+ * makes the second delivery a no-op.
+ *
+ * The AMQP connection is opened once with the connector's broker settings
+ * (host, virtual host, TLS, credentials provider) and kept for the life of
+ * the service, so polling GET /api/admin/dlq only opens a channel.
+ */
+@ApplicationScoped
+public class DeadLetterQueue {
+
+    private static final Logger LOG = Logger.getLogger(DeadLetterQueue.class);
+
+    private static final String DLQ_SUFFIX = ".dlq";
+    private static final Duration CONFIRM_TIMEOUT = Duration.ofSeconds(30);
+
+    /*
+     * Same broker settings as the smallrye-rabbitmq connector (rabbitmq-*)
+     */
+
+    @ConfigProperty(name = "rabbitmq-host", defaultValue = "localhost")
+    String host;
+
+    @ConfigProperty(name = "rabbitmq-port", defaultValue = "5672")
+    int port;
+
+    @ConfigProperty(name = "rabbitmq-username", defaultValue = "guest")
+    String username;
+
+    @ConfigProperty(name = "rabbitmq-password", defaultValue = "guest")
+    String password;
+
+    @ConfigProperty(name = "rabbitmq-virtual-host", defaultValue = "/")
+    String virtualHost;
+
+    @ConfigProperty(name = "rabbitmq-ssl", defaultValue = "false")
+    boolean ssl;
+
+    @ConfigProperty(name = "rabbitmq-trust-all", defaultValue = "false")
+    boolean trustAll;
+
+    /**
+     * Name of the CredentialsProvider bean the username and password come
+     * from, instead of rabbitmq-username and rabbitmq-password.
+     */
+    @ConfigProperty(name = "rabbitmq-credentials-provider-name")
+    Optional<String> credentialsProviderName;
+
+    @Inject
+    @Any
+    Instance<CredentialsProvider> credentialsProviders;
+
+    /**
+     * Queues whose DLQ is inspected and replayed, in replay order.
+     */
+    @ConfigProperty(name = "sms.dlq.queues", defaultValue = "sms-queue-high,sms-queue")
+    List<String> queues;
+
+    /**
+     * Default replay rate (messages per second) when the request sets none.
+     */
+    @ConfigProperty(name = "sms.dlq.replay-rate", defaultValue = "200")
+    int defaultRate;
+
+    /**
+     * Publishes confirmed (and DLQ messages acked) at once.
+     */
+    @ConfigProperty(name = "sms.dlq.confirm-batch-size", defaultValue = "100")
+    int confirmBatchSize;
+
+    private RecoveryJob job;
+
+    /**
+     * Shared by depths() and the replays (one channel each), opened on
+     * first use and again if it was closed for good.
+     */
+    private Connection connection;
+
+    /**
+     * @return number of dead-lettered messages per queue
+     */
+    public Map<String, Long> depths() {
+        Map<String, Long> depths = new LinkedHashMap<>();
+        try (Channel channel = connection().createChannel()) {
+            for (String queue : queues) {
+                depths.put(queue, channel.messageCount(queue + DLQ_SUFFIX));
+            }
+        } catch (IOException | TimeoutException e) {
+            throw new UncheckedIOException("Reading the dead-letter queues failed", toIOException(e));
+        }
+        return depths;
+    }
+
+    /**
+     * Start replaying dead-lettered messages into their original queues.
+     *
+     * @param messageIds only replay these messages, all if empty
+     * @param limit replay at most this many messages, no limit if null
+     * @param rate messages per second, null for the configured default
+     * @return the started job
+     * @throws RecoveryJobRunningException if a replay is already running
+     */
+    public synchronized RecoveryJobStatus replay(Set<Long> messageIds, Long limit, Integer rate) {
+        if (job != null && job.isRunning()) {
+            throw new RecoveryJobRunningException("A dead-letter replay is already running");
+        }
+
+        RecoveryJob started = new RecoveryJob("dlq-replay", rate == null ? defaultRate : rate);
+        job = started;
+        long maxMessages = limit == null ? Long.MAX_VALUE : limit;
+        LOG.infof("Dead-letter replay started: selected=%s, limit=%d, rate=%d/s",
+            messageIds.isEmpty() ? "all" : messageIds.size(), maxMessages, started.status().getRate());
+        Thread.ofPlatform().name("dlq-replay").daemon().start(() -> run(started, messageIds, maxMessages));
+        return started.status();
+    }
+
+    /**
+     * @return the running or last replay, null if there was none
+     */
+    public synchronized RecoveryJobStatus status() {
+        return job == null ? null : job.status();
+    }
+
+    /**
+     * Stop the running replay, the messages not replayed yet stay in the DLQ.
+     *
+     * @return the job, null if there was none
+     */
+    public synchronized RecoveryJobStatus cancel() {
+        if (job == null) {
+            return null;
+        }
+        job.cancel();
+        return job.status();
+    }
+
+    private void run(RecoveryJob job, Set<Long> messageIds, long limit) {
+        // Closing the channel returns every message still unacked to its DLQ
+        try (Channel channel = connection().createChannel()) {
+            channel.confirmSelect();
+            long remaining = limit;
+            for (String queue : queues) {
+                if (remaining <= 0 || !job.isRunning()) {
+                    break;
+                }
+                remaining -= replayQueue(channel, queue, job, messageIds, remaining);
+            }
+            job.complete();
+        } catch (Exception e) {
+            LOG.errorf(e, "Dead-letter replay failed");
+            job.fail(e);
+        }
+        RecoveryJobStatus status = job.status();
+        LOG.infof("Dead-letter replay finished: state=%s, scanned=%d, replayed=%d", status.getState(), status.getScanned(), status.getRequeued());
+    }
+
+    /**
+     * Replay one DLQ.
+     *
+     * @return number of replayed messages
+     */
+    private long replayQueue(Channel channel, String queue, RecoveryJob job, Set<Long> messageIds, long limit)
+            throws IOException, InterruptedException, TimeoutException {
+        String deadLetterQueue = queue + DLQ_SUFFIX;
+        // Skipped messages go back into the DLQ at the end, so only what is there now is read
+        long depth = channel.messageCount(deadLetterQueue);
+        List<Long> unconfirmed = new ArrayList<>(confirmBatchSize);
+        long lastSkipped = -1;
+        long replayed = 0;
+
+        for (long read = 0; read < depth && replayed < limit && job.isRunning(); read++) {
+            GetResponse response = channel.basicGet(deadLetterQueue, false);
+            if (response == null) {
+                break;
+            }
+            job.recordScanned(1);
+            long deliveryTag = response.getEnvelope().getDeliveryTag();
+            if (!messageIds.isEmpty() && !messageIds.contains(messageIdOf(response.getBody()))) {
+                lastSkipped = deliveryTag;
+                continue;
+            }
+
+            job.pace(1);
+            channel.basicPublish("", queue, response.getProps(), response.getBody());
+            unconfirmed.add(deliveryTag);
+            replayed++;
+            if (unconfirmed.size() >= confirmBatchSize) {
+                confirmAndAck(channel, unconfirmed, job);
+            }
+        }
+        confirmAndAck(channel, unconfirmed, job);
+
+        if (lastSkipped >= 0) {
+            // Everything unacked up to here is a skipped message
+            channel.basicNack(lastSkipped, true, true);
+        }
+        if (replayed > 0) {
+            LOG.infof("Replayed dead-lettered messages: queue=%s, count=%d", queue, replayed);
+        }
+        return replayed;
+    }
+
+    /**
+     * Wait for the broker to confirm the replayed publishes, then remove
+     * them from the DLQ.
+     */
+    private void confirmAndAck(Channel channel, List<Long> deliveryTags, RecoveryJob job)
+            throws IOException, InterruptedException, TimeoutException {
+        if (deliveryTags.isEmpty()) {
+            return;
+        }
+        channel.waitForConfirmsOrDie(CONFIRM_TIMEOUT.toMillis());
+        for (long deliveryTag : deliveryTags) {
+            channel.basicAck(deliveryTag, false);
+        }
+        job.recordRequeued(deliveryTags.size());
+        deliveryTags.clear();
+    }
+
+    /**
+     * @return the messageId of a queue message, null if there is none
+     */
+    private static Long messageIdOf(byte[] body) {
+        try {
+            return new JsonObject(new String(body, StandardCharsets.UTF_8)).getLong("messageId");
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The shared connection. It recovers from network failures by itself
+     * (automatic recovery), a new one is only opened once it was closed.
+     */
+    private synchronized Connection connection() throws IOException, TimeoutException {
+        if (connection == null || !connection.isOpen()) {
+            connection = connect();
+        }
+        return connection;
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        synchronized (this) {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close();
+            } catch (IOException | RuntimeException e) {
+                LOG.debugf(e, "Closing the dead-letter connection failed");
+            }
+            connection = null;
+        }
+    }
+
+    private Connection connect() throws IOException, TimeoutException {
+        ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost(host);
+        factory.setPort(port);
+        factory.setVirtualHost(virtualHost);
+        if (credentialsProviderName.isPresent()) {
+            CredentialsProvider provider = credentialsProviders.select(NamedLiteral.of(credentialsProviderName.get())).get();
+            Map<String, String> credentials = provider.getCredentials(credentialsProviderName.get());
+            factory.setUsername(credentials.get(CredentialsProvider.USER_PROPERTY_NAME));
+            factory.setPassword(credentials.get(CredentialsProvider.PASSWORD_PROPERTY_NAME));
+        } else {
+            factory.setUsername(username);
+            factory.setPassword(password);
+        }
+        if (ssl) {
+            try {
+                if (trustAll) {
+                    factory.useSslProtocol();
+                } else {
+                    // JVM trust store, like the connector without trust-all
+                    factory.useSslProtocol(SSLContext.getDefault());
+                    factory.enableHostnameVerification();
+                }
+            } catch (GeneralSecurityException e) {
+                throw new IOException("TLS setup for the dead-letter connection failed", e);
+            }
+        }
+        return factory.newConnection("sms-dead-letter-admin");
+    }
+
+    private static IOException toIOException(Exception e) {
+        return e instanceof IOException io ? io : new IOException(e);
+    }
+}
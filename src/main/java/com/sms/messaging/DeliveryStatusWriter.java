@@ -0,0 +1,435 @@
+package com.sms.messaging;
+
+import com.sms.exception.MessageNotFoundException;
+import com.sms.gateway.DeliveryResult;
+import com.sms.model.MessageStatus;
+import com.sms.service.MessageStatistics;
+import com.sms.service.SmsService;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Status-writer stage of the delivery pipeline.
+ *
+ * Instead of findById + mutate + persist per delivered message (two
+ * round-trips plus dirty checking), the consumer submits the final
+ * status here. A single writer thread coalesces the submissions for at
+ * most max-delay or max-batch-size items and writes them with one JDBC
+ * batch:
+ *
+ * UPDATE messages SET status=?, error_message=?, updated_at=?, attempts=attempts+1,
+ *   send_at=COALESCE(?, send_at) WHERE id=? AND status='PENDING' AND created_at=?
+ *
+ * The status guard makes the write idempotent: a redelivered queue
+ * message can't overwrite a status that was already written. When no
+ * row was updated, one query per flush tells a redelivery (row exists,
+ * the future completes with false) from a missing row (the future
+ * fails with MessageNotFoundException, the consumer dead-letters it). Every
+ * write counts one delivery attempt, a RETRYING write also sets the
+ * time of the next attempt (send_at). created_at (sent along in the
+ * queue event) is the partition key, so only the message's monthly
+ * partition is touched. Events from before createdAt was added are
+ * written by id alone, in a batch of their own.
+ *
+ * The parts of a long message go through the same queue, they are
+ * written in the same transaction before the message updates:
+ *
+ * UPDATE message_parts SET status=?, error_message=?, updated_at=?
+ *   WHERE message_id=? AND part_number=? AND status <> 'DELIVERED'
+ *
+ * so a part once DELIVERED stays DELIVERED, a FAILED part is sent again
+ * with the next attempt.
+ *
+ * After a flush the cached SmsResponse of every updated row is
+ * invalidated (SmsService.MESSAGE_CACHE), before the futures complete,
+ * so the next GET /api/sms/{id} reads the new status, and the change is
+ * counted in the MessageStatistics.
+ *
+ * Metrics:
+ * - sms.status.writer.batch.size: number of updates per flush
+ * - sms.status.writer.flush: flush duration
+ */
+@ApplicationScoped
+public class DeliveryStatusWriter {
+
+    private static final Logger LOG = Logger.getLogger(DeliveryStatusWriter.class);
+
+    private static final String UPDATE_STATUS_BY_ID_SQL =
+        "UPDATE messages SET status = ?, error_message = ?, updated_at = ?, attempts = COALESCE(attempts, 0) + 1, "
+            + "send_at = COALESCE(?, send_at) WHERE id = ? AND status = 'PENDING'";
+
+    private static final String UPDATE_STATUS_SQL = UPDATE_STATUS_BY_ID_SQL + " AND created_at = ?";
+
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM messages WHERE id IN (";
+
+    private static final String UPDATE_PART_BY_ID_SQL =
+        "UPDATE message_parts SET status = ?, error_message = ?, updated_at = ? "
+            + "WHERE message_id = ? AND part_number = ? AND status <> 'DELIVERED'";
+
+    private static final String UPDATE_PART_SQL = UPDATE_PART_BY_ID_SQL + " AND created_at = ?";
+
+    /**
+     * A status transition waiting to be flushed, of a message (partNumber 0)
+     * or of one part of it.
+     * The future completes with true if the row was updated, false if it
+     * was no longer PENDING (a part: already DELIVERED). For a missing
+     * message row it fails with MessageNotFoundException.
+     */
+    private record StatusUpdate(long messageId, LocalDateTime createdAt, int partNumber, MessageStatus status, String errorMessage,
+                                LocalDateTime retryAt, LocalDateTime updatedAt, CompletableFuture<Boolean> written) {
+
+        boolean isPart() {
+            return partNumber > 0;
+        }
+    }
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    @CacheName(SmsService.MESSAGE_CACHE)
+    Cache messageCache;
+
+    @Inject
+    MessageStatistics statistics;
+
+    @ConfigProperty(name = "sms.status-writer.max-batch-size", defaultValue = "500")
+    int maxBatchSize;
+
+    @ConfigProperty(name = "sms.status-writer.max-delay", defaultValue = "5ms")
+    Duration maxDelay;
+
+    private final BlockingQueue<StatusUpdate> pending = new LinkedBlockingQueue<>();
+    private DistributionSummary batchSize;
+    private Timer flushTimer;
+    private volatile boolean running;
+    private Thread worker;
+
+    @PostConstruct
+    void init() {
+        batchSize = DistributionSummary.builder("sms.status.writer.batch.size")
+            .description("Status updates written per flush")
+            .register(meterRegistry);
+        flushTimer = Timer.builder("sms.status.writer.flush")
+            .description("Duration of a batched status flush")
+            .register(meterRegistry);
+
+        running = true;
+        worker = Thread.ofPlatform().name("status-writer").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * Mark a message as DELIVERED.
+     *
+     * @param messageId the delivered message
+     * @param createdAt createdAt of the message (nullable: unknown)
+     * @return completes once the status is written (true) or skipped (false)
+     */
+    public CompletionStage<Boolean> markAsDelivered(long messageId, LocalDateTime createdAt) {
+        return submit(messageId, createdAt, MessageStatus.DELIVERED, null, null);
+    }
+
+    /**
+     * Mark a message as FAILED.
+     *
+     * @param messageId the failed message
+     * @param createdAt createdAt of the message (nullable: unknown)
+     * @param errorMessage description of why delivery failed
+     * @return completes once the status is written (true) or skipped (false)
+     */
+    public CompletionStage<Boolean> markAsFailed(long messageId, LocalDateTime createdAt, String errorMessage) {
+        return submit(messageId, createdAt, MessageStatus.FAILED, errorMessage, null);
+    }
+
+    /**
+     * Mark a message as RETRYING: the delivery failed with a transient
+     * error and is tried again at retryAt.
+     *
+     * @param messageId the failed message
+     * @param createdAt createdAt of the message (nullable: unknown)
+     * @param errorMessage description of why delivery failed
+     * @param retryAt when the next attempt is due
+     * @return completes once the status is written (true) or skipped (false)
+     */
+    public CompletionStage<Boolean> markAsRetrying(long messageId, LocalDateTime createdAt, String errorMessage, LocalDateTime retryAt) {
+        return submit(messageId, createdAt, MessageStatus.RETRYING, errorMessage, retryAt);
+    }
+
+    /**
+     * Record the carrier answer for one part of a long message: DELIVERED,
+     * or FAILED (transient or not) with the error.
+     *
+     * @param messageId the message the part belongs to
+     * @param createdAt createdAt of the message, so only its partition is updated (nullable)
+     * @param partNumber position of the part, 1-based
+     * @param result the carrier answer for the part
+     * @return completes once the status is written (true) or skipped (false)
+     */
+    public CompletionStage<Boolean> markPart(long messageId, LocalDateTime createdAt, int partNumber, DeliveryResult result) {
+        return result.delivered()
+            ? submit(messageId, createdAt, partNumber, MessageStatus.DELIVERED, null, null)
+            : submit(messageId, createdAt, partNumber, MessageStatus.FAILED, result.errorMessage(), null);
+    }
+
+    private CompletionStage<Boolean> submit(long messageId, LocalDateTime createdAt, MessageStatus status, String errorMessage,
+                                            LocalDateTime retryAt) {
+        return submit(messageId, createdAt, 0, status, errorMessage, retryAt);
+    }
+
+    private CompletionStage<Boolean> submit(long messageId, LocalDateTime createdAt, int partNumber, MessageStatus status,
+                                            String errorMessage, LocalDateTime retryAt) {
+        CompletableFuture<Boolean> written = new CompletableFuture<>();
+        pending.add(new StatusUpdate(messageId, createdAt, partNumber, status, errorMessage, retryAt, LocalDateTime.now(), written));
+        return written;
+    }
+
+    private void run() {
+        List<StatusUpdate> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Shutting down: write whatever is still queued
+                pending.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Wait for the first update, then keep collecting until the batch is
+     * full or max-delay has passed since the first update.
+     */
+    private void collect(List<StatusUpdate> batch) throws InterruptedException {
+        batch.add(pending.take());
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+
+        while (batch.size() < maxBatchSize) {
+            pending.drainTo(batch, maxBatchSize - batch.size());
+            if (batch.size() >= maxBatchSize) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            StatusUpdate next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<StatusUpdate> batch) {
+        long start = System.nanoTime();
+        List<StatusUpdate> parts = new ArrayList<>();
+        List<StatusUpdate> messages = new ArrayList<>(batch.size());
+        for (StatusUpdate update : batch) {
+            (update.isPart() ? parts : messages).add(update);
+        }
+        int[] partCounts;
+        int[] counts;
+        Set<Long> existing;
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                partCounts = writeParts(connection, parts);
+                counts = writeMessages(connection, messages);
+                existing = existingIds(connection, messages, counts);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            LOG.errorf(e, "Status flush failed: count=%d", batch.size());
+            batch.forEach(update -> update.written().completeExceptionally(e));
+            return;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSize.record(batch.size());
+        }
+
+        for (int i = 0; i < parts.size(); i++) {
+            parts.get(i).written().complete(isWritten(partCounts[i]));
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            boolean written = isWritten(counts[i]);
+            StatusUpdate update = messages.get(i);
+            if (!written && !existing.contains(update.messageId())) {
+                update.written().completeExceptionally(new MessageNotFoundException(update.messageId()));
+                continue;
+            }
+            if (written) {
+                messageCache.invalidate(update.messageId()).await().indefinitely();
+                switch (update.status()) {
+                    case DELIVERED -> statistics.recordDelivered();
+                    case RETRYING -> statistics.recordRetrying();
+                    default -> statistics.recordFailed(update.errorMessage());
+                }
+            }
+            update.written().complete(written);
+        }
+    }
+
+    /**
+     * The IDs of the messages no row was updated for that do exist (no
+     * longer PENDING), the others are missing. One query per flush, and
+     * only when a write was skipped.
+     */
+    private Set<Long> existingIds(Connection connection, List<StatusUpdate> updates, int[] counts) throws SQLException {
+        List<Long> skipped = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (!isWritten(counts[i])) {
+                skipped.add(updates.get(i).messageId());
+            }
+        }
+        Set<Long> existing = new HashSet<>();
+        if (skipped.isEmpty()) {
+            return existing;
+        }
+        String sql = EXISTING_IDS_SQL + String.join(", ", Collections.nCopies(skipped.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < skipped.size(); i++) {
+                statement.setLong(i + 1, skipped.get(i));
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    existing.add(result.getLong(1));
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * @return the update count of every update, in the order of updates
+     */
+    private int[] writeMessages(Connection connection, List<StatusUpdate> updates) throws SQLException {
+        List<Integer> byCreatedAt = new ArrayList<>(updates.size());
+        List<Integer> byId = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            (updates.get(i).createdAt() != null ? byCreatedAt : byId).add(i);
+        }
+
+        int[] counts = new int[updates.size()];
+        writeMessages(connection, UPDATE_STATUS_SQL, updates, byCreatedAt, counts);
+        writeMessages(connection, UPDATE_STATUS_BY_ID_SQL, updates, byId, counts);
+        return counts;
+    }
+
+    private void writeMessages(Connection connection, String sql, List<StatusUpdate> updates, List<Integer> indexes,
+                               int[] counts) throws SQLException {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int index : indexes) {
+                StatusUpdate update = updates.get(index);
+                statement.setString(1, update.status().name());
+                statement.setString(2, update.errorMessage());
+                statement.setTimestamp(3, Timestamp.valueOf(update.updatedAt()));
+                statement.setTimestamp(4, update.retryAt() == null ? null : Timestamp.valueOf(update.retryAt()));
+                statement.setLong(5, update.messageId());
+                if (update.createdAt() != null) {
+                    statement.setTimestamp(6, Timestamp.valueOf(update.createdAt()));
+                }
+                statement.addBatch();
+            }
+            int[] written = statement.executeBatch();
+            for (int i = 0; i < indexes.size(); i++) {
+                counts[indexes.get(i)] = written[i];
+            }
+        }
+    }
+
+    /**
+     * @return the update count of every update, in the order of updates
+     */
+    private int[] writeParts(Connection connection, List<StatusUpdate> updates) throws SQLException {
+        List<Integer> byCreatedAt = new ArrayList<>(updates.size());
+        List<Integer> byId = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            (updates.get(i).createdAt() != null ? byCreatedAt : byId).add(i);
+        }
+
+        int[] counts = new int[updates.size()];
+        writeParts(connection, UPDATE_PART_SQL, updates, byCreatedAt, counts);
+        writeParts(connection, UPDATE_PART_BY_ID_SQL, updates, byId, counts);
+        return counts;
+    }
+
+    private void writeParts(Connection connection, String sql, List<StatusUpdate> updates, List<Integer> indexes,
+                            int[] counts) throws SQLException {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int index : indexes) {
+                StatusUpdate update = updates.get(index);
+                statement.setString(1, update.status().name());
+                statement.setString(2, update.errorMessage());
+                statement.setTimestamp(3, Timestamp.valueOf(update.updatedAt()));
+                statement.setLong(4, update.messageId());
+                statement.setInt(5, update.partNumber());
+                if (update.createdAt() != null) {
+                    statement.setTimestamp(6, Timestamp.valueOf(update.createdAt()));
+                }
+                statement.addBatch();
+            }
+            int[] written = statement.executeBatch();
+            for (int i = 0; i < indexes.size(); i++) {
+                counts[indexes.get(i)] = written[i];
+            }
+        }
+    }
+
+    /**
+     * SUCCESS_NO_INFO: the driver doesn't report row counts, assume the row was updated
+     */
+    private static boolean isWritten(int count) {
+        return count > 0 || count == Statement.SUCCESS_NO_INFO;
+    }
+}
@@ -0,0 +1,212 @@
+package com.sms.messaging;
+
+import com.sms.model.Message;
+import com.sms.model.OutboxEvent;
+import com.sms.repository.MessagePartRepository;
+import com.sms.repository.MessageRepository;
+import com.sms.repository.OutboxRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Relay that moves events from the outbox table to RabbitMQ.
+ *
+ * The send path only writes OutboxEvent rows (same transaction as the
+ * Message), so request latency no longer depends on the broker and a
+ * rolled back send can never produce a phantom event.
+ *
+ * A single background thread drains the table in ordered batches:
+ * 1. Claim up to batch-size rows (FOR UPDATE SKIP LOCKED), HIGH priority first
+ * 2. Load their messages (one query, plus one for the undelivered parts
+ *    of long messages) and publish them, waiting for the publisher confirms.
+ *    The rows carry the createdAt of their message, the lookup only reads
+ *    the partitions of the batch's createdAt range
+ * 3. Delete the published rows with one statement
+ *
+ * Delivery is at-least-once: if the service dies between 2 and 3 the
+ * batch is published again after restart.
+ */
+@ApplicationScoped
+public class OutboxRelay {
+
+    private static final Logger LOG = Logger.getLogger(OutboxRelay.class);
+
+    @Inject
+    OutboxRepository outboxRepository;
+
+    @Inject
+    MessageRepository messageRepository;
+
+    @Inject
+    MessagePartRepository partRepository;
+
+    @Inject
+    SmsMessageProducer messageProducer;
+
+    @ConfigProperty(name = "sms.outbox.relay.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "sms.outbox.relay.batch-size", defaultValue = "500")
+    int batchSize;
+
+    /**
+     * How long the relay sleeps when the outbox is empty (or after an error).
+     */
+    @ConfigProperty(name = "sms.outbox.relay.poll-interval", defaultValue = "100ms")
+    Duration pollInterval;
+
+    /**
+     * How long a batch waits for its publisher confirms before it is
+     * rolled back (and published again), well below the transaction timeout.
+     */
+    @ConfigProperty(name = "sms.outbox.relay.confirm-timeout", defaultValue = "10s")
+    Duration confirmTimeout;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            LOG.info("Outbox relay is disabled");
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("outbox-relay").daemon().start(this::run);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        LOG.infof("Outbox relay started: batchSize=%d, pollInterval=%s, confirmTimeout=%s", batchSize, pollInterval, confirmTimeout);
+        while (running) {
+            try {
+                // A full batch means there is probably more waiting, so only sleep when drained
+                if (relayBatch() < batchSize) {
+                    Thread.sleep(pollInterval);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOG.errorf(e, "Outbox relay failed, retrying in %s", pollInterval);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * Publish one batch of outbox events.
+     *
+     * Runs in one transaction: the row locks are held until the confirms
+     * are in and the rows are deleted, a failed publish rolls back and the
+     * rows are picked up again on the next round. So does a batch whose
+     * confirms don't all come within confirm-timeout (broker stalled or
+     * blocked), instead of holding the locks and the connection forever.
+     *
+     * @return number of relayed events
+     */
+    int relayBatch() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            List<OutboxEvent> events = outboxRepository.claimBatch(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, Message> messages = listMessages(events)
+                .stream()
+                .collect(Collectors.toMap(message -> message.id, Function.identity()));
+
+            Map<Long, List<Integer>> parts = undeliveredParts(messages.values());
+
+            // Events of deleted messages are dropped together with the published ones
+            messageProducer.sendBatchToQueue(events.stream()
+                .map(event -> messages.get(event.messageId))
+                .filter(Objects::nonNull)
+                .map(message -> SmsMessageEvent.fromEntity(message, parts.get(message.id)))
+                .toList(), confirmTimeout);
+            outboxRepository.deleteByIds(events.stream().map(event -> event.id).toList());
+
+            return events.size();
+        });
+    }
+
+    /**
+     * The messages of the events, looked up with the createdAt range of
+     * the batch (by ID alone if a row predates message_created_at).
+     */
+    private List<Message> listMessages(List<OutboxEvent> events) {
+        List<Long> ids = events.stream().map(event -> event.messageId).toList();
+        LocalDateTime createdFrom = null;
+        LocalDateTime createdTo = null;
+        for (OutboxEvent event : events) {
+            if (event.messageCreatedAt == null) {
+                return messageRepository.listByIds(ids, null, null);
+            }
+            if (createdFrom == null || event.messageCreatedAt.isBefore(createdFrom)) {
+                createdFrom = event.messageCreatedAt;
+            }
+            if (createdTo == null || event.messageCreatedAt.isAfter(createdTo)) {
+                createdTo = event.messageCreatedAt;
+            }
+        }
+        return messageRepository.listByIds(ids, createdFrom, createdTo);
+    }
+
+    /**
+     * @return part numbers still to deliver per multipart message (an empty
+     *         list once all are delivered), single SMS are missing
+     */
+    private Map<Long, List<Integer>> undeliveredParts(Collection<Message> messages) {
+        List<Long> multipart = new ArrayList<>();
+        LocalDateTime createdFrom = null;
+        LocalDateTime createdTo = null;
+        for (Message message : messages) {
+            if (message.segments == null || message.segments <= 1) {
+                continue;
+            }
+            multipart.add(message.id);
+            if (createdFrom == null || message.createdAt.isBefore(createdFrom)) {
+                createdFrom = message.createdAt;
+            }
+            if (createdTo == null || message.createdAt.isAfter(createdTo)) {
+                createdTo = message.createdAt;
+            }
+        }
+        if (multipart.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, List<Integer>> parts = partRepository.findUndeliveredParts(multipart, createdFrom, createdTo);
+        multipart.forEach(id -> parts.computeIfAbsent(id, key -> new ArrayList<>()));
+        return parts;
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
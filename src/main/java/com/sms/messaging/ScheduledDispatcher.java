@@ -0,0 +1,372 @@
+package com.sms.messaging;
+
+import com.sms.model.Message;
+import com.sms.model.MessageStatus;
+import com.sms.model.OutboxEvent;
+import com.sms.repository.MessageRepository;
+import com.sms.repository.OutboxRepository;
+import com.sms.service.MessageStatistics;
+import com.sms.service.SmsService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Releases SCHEDULED messages when their sendAt time has come.
+ *
+ * RETRYING messages (transient delivery failures, see SmsMessageConsumer)
+ * take the same way: their sendAt is the time of the next attempt, so
+ * the wheel is the delay queue of the retries as well.
+ *
+ * Due messages are kept in a hierarchical TimingWheel (O(1) insert,
+ * fires within one tick), owned by a single background thread. The
+ * wheel only holds the messages due within the preload window, the rest
+ * stays in the database until the window gets to it:
+ *
+ * - Loading: the window [.., now + preload) is read in due order with
+ *   keyset pages (IDs and sendAt only). When half of it has passed, it is
+ *   extended and the next rows are read from where the last load ended,
+ *   no table scan per tick
+ * - New scheduled messages due inside the loaded window are handed over
+ *   after commit (schedule()), later ones are picked up by the loader
+ * - Releasing: due IDs are released in batches, in one transaction per
+ *   batch: lock the rows that are still SCHEDULED, set them PENDING and
+ *   write their outbox events. The OutboxRelay then hands them to the
+ *   SmsMessageProducer like any other message
+ *
+ * Every wheel entry keeps the createdAt of its message next to the ID, so
+ * the release only reads the partitions of the batch's createdAt range
+ * (see MessagePartitions) instead of probing every monthly partition.
+ *
+ * Restart: the wheel is rebuilt from the database at startup, messages
+ * that became due while the service was down are released right away.
+ * A message that ends up in the wheel twice (loaded and handed over, or
+ * several instances) is still released once, the row lock and the status
+ * check decide.
+ *
+ * Metrics:
+ * - sms.scheduled.waiting: messages in the timing wheel
+ */
+@ApplicationScoped
+public class ScheduledDispatcher {
+
+    private static final Logger LOG = Logger.getLogger(ScheduledDispatcher.class);
+
+    private static final int WHEEL_LEVELS = 4;
+
+    /**
+     * Wheel data of a message whose createdAt isn't known (retries of
+     * queue events from before createdAt was sent along).
+     */
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    /**
+     * A message handed over by the send path.
+     */
+    private record Entry(long messageId, long createdMicros, long dueMillis) {
+    }
+
+    /**
+     * A due message: its ID and createdAt (as wheel data, see toMicros).
+     */
+    private record Due(long messageId, long createdMicros) {
+    }
+
+    /**
+     * Outcome of one release transaction.
+     */
+    private record Released(List<Long> ids, int retried) {
+    }
+
+    @Inject
+    MessageRepository messageRepository;
+
+    @Inject
+    OutboxRepository outboxRepository;
+
+    @Inject
+    MessageStatistics statistics;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    @CacheName(SmsService.MESSAGE_CACHE)
+    Cache messageCache;
+
+    @ConfigProperty(name = "sms.schedule.enabled", defaultValue = "true")
+    boolean enabled;
+
+    /**
+     * Resolution of the wheel: messages are released at most one tick late.
+     */
+    @ConfigProperty(name = "sms.schedule.tick", defaultValue = "100ms")
+    Duration tick;
+
+    @ConfigProperty(name = "sms.schedule.wheel-slots", defaultValue = "512")
+    int wheelSlots;
+
+    /**
+     * How far ahead scheduled messages are loaded into memory.
+     */
+    @ConfigProperty(name = "sms.schedule.preload", defaultValue = "1h")
+    Duration preload;
+
+    @ConfigProperty(name = "sms.schedule.load-page-size", defaultValue = "10000")
+    int loadPageSize;
+
+    @ConfigProperty(name = "sms.schedule.batch-size", defaultValue = "500")
+    int batchSize;
+
+    /**
+     * Delay before messages of a failed release are tried again.
+     */
+    @ConfigProperty(name = "sms.schedule.retry-delay", defaultValue = "1s")
+    Duration retryDelay;
+
+    private final Queue<Entry> handedOver = new ConcurrentLinkedQueue<>();
+    private final List<Due> due = new ArrayList<>();
+    private long tickMillis;
+    private TimingWheel wheel;
+
+    /**
+     * Messages due before this time are (being) loaded into the wheel.
+     * Set before the rows are read, so a message committed meanwhile is
+     * either read by the loader or handed over by the send path.
+     */
+    private volatile long loadedUntil = Long.MIN_VALUE;
+
+    // Keyset position of the loader: last row read
+    private LocalDateTime lastSendAt;
+    private Long lastId;
+    private boolean loadComplete;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            LOG.info("Scheduled dispatcher is disabled");
+            return;
+        }
+        tickMillis = Math.max(tick.toMillis(), 1);
+        wheel = new TimingWheel(wheelSlots, WHEEL_LEVELS, System.currentTimeMillis() / tickMillis);
+        Gauge.builder("sms.scheduled.waiting", this, dispatcher -> dispatcher.wheel.size())
+            .description("Scheduled messages waiting in the timing wheel")
+            .register(meterRegistry);
+
+        running = true;
+        worker = Thread.ofPlatform().name("scheduled-dispatcher").daemon().start(this::run);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Hand over a SCHEDULED (or RETRYING) message after its transaction committed.
+     *
+     * Messages due after the loaded window are left to the loader, so
+     * memory only holds what is due soon. Lock-free, safe from any thread.
+     *
+     * @param messageId the stored message
+     * @param createdAt createdAt of the message (nullable: unknown)
+     * @param sendAt when it is due
+     */
+    public void schedule(long messageId, LocalDateTime createdAt, LocalDateTime sendAt) {
+        long dueMillis = toEpochMillis(sendAt);
+        if (running && dueMillis < loadedUntil) {
+            handedOver.add(new Entry(messageId, toMicros(createdAt), dueMillis));
+        }
+    }
+
+    private void run() {
+        LOG.infof("Scheduled dispatcher started: tick=%s, preload=%s", tick, preload);
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                loadIfNeeded(now);
+
+                Entry entry;
+                while ((entry = handedOver.poll()) != null) {
+                    wheel.add(entry.messageId(), entry.createdMicros(), dueTick(entry.dueMillis()), this::addDue);
+                }
+                wheel.advanceTo(now / tickMillis, this::addDue);
+                releaseDue();
+
+                Thread.sleep(tickMillis - System.currentTimeMillis() % tickMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOG.errorf(e, "Scheduled dispatcher failed, retrying in %s", retryDelay);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * Extend the loaded window once half of it has passed and read the
+     * newly covered rows, page by page. A load that failed is continued
+     * from the last row read on the next round.
+     */
+    private void loadIfNeeded(long now) {
+        long preloadMillis = preload.toMillis();
+        if (loadComplete && loadedUntil - now > preloadMillis / 2) {
+            return;
+        }
+
+        long until = now + preloadMillis;
+        loadedUntil = until;
+        loadComplete = false;
+        LocalDateTime untilTime = toLocalDateTime(until);
+
+        int loaded = 0;
+        List<Object[]> rows;
+        do {
+            rows = QuarkusTransaction.requiringNew().call(
+                () -> messageRepository.findScheduledBefore(untilTime, lastSendAt, lastId, loadPageSize));
+            for (Object[] row : rows) {
+                lastId = (Long) row[0];
+                lastSendAt = (LocalDateTime) row[1];
+                wheel.add(lastId, toMicros((LocalDateTime) row[2]), dueTick(toEpochMillis(lastSendAt)), this::addDue);
+            }
+            loaded += rows.size();
+        } while (rows.size() == loadPageSize);
+        loadComplete = true;
+
+        if (loaded > 0) {
+            LOG.infof("Loaded scheduled messages: count=%d, until=%s", loaded, untilTime);
+        }
+    }
+
+    /**
+     * Release the due messages, batchSize per transaction. Messages of a
+     * failed batch go back into the wheel for another try.
+     */
+    private void releaseDue() {
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Due> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                Released released = QuarkusTransaction.requiringNew().call(() -> release(batch));
+                statistics.recordDue(MessageStatus.SCHEDULED, released.ids().size() - released.retried());
+                statistics.recordDue(MessageStatus.RETRYING, released.retried());
+                for (Long id : released.ids()) {
+                    messageCache.invalidate(id).await().indefinitely();
+                }
+            } catch (RuntimeException e) {
+                LOG.errorf(e, "Releasing scheduled messages failed, retrying in %s: count=%d", retryDelay, batch.size());
+                long retryTick = dueTick(System.currentTimeMillis() + retryDelay.toMillis());
+                for (Due message : batch) {
+                    wheel.add(message.messageId(), message.createdMicros(), retryTick, handedOverNow());
+                }
+            }
+        }
+        due.clear();
+    }
+
+    /**
+     * Moves the messages that are still SCHEDULED or RETRYING to PENDING
+     * and writes their outbox events. Called inside its own transaction.
+     *
+     * @return IDs of the released messages, and how many of them were retries
+     */
+    private Released release(List<Due> batch) {
+        List<Long> ids = new ArrayList<>(batch.size());
+        long createdFrom = Long.MAX_VALUE;
+        long createdTo = Long.MIN_VALUE;
+        for (Due message : batch) {
+            ids.add(message.messageId());
+            createdFrom = Math.min(createdFrom, message.createdMicros());
+            createdTo = Math.max(createdTo, message.createdMicros());
+        }
+
+        // One unknown createdAt (the minimum) and the whole batch is looked up by ID alone
+        List<Message> messages = createdFrom == UNKNOWN
+            ? messageRepository.lockScheduled(ids, null, null)
+            : messageRepository.lockScheduled(ids, fromMicros(createdFrom), fromMicros(createdTo));
+        List<Long> released = new ArrayList<>(messages.size());
+        int retried = 0;
+        for (Message message : messages) {
+            if (message.status == MessageStatus.RETRYING) {
+                retried++;
+            }
+            message.markAsDue();
+            released.add(message.id);
+        }
+        outboxRepository.persist(messages.stream().map(OutboxEvent::new));
+        return new Released(released, retried);
+    }
+
+    /**
+     * Retries are never due immediately, but if the clock jumped they go
+     * through the hand-over queue instead of the list being released.
+     */
+    private TimingWheel.Expiry handedOverNow() {
+        return (id, createdMicros) -> handedOver.add(new Entry(id, createdMicros, System.currentTimeMillis()));
+    }
+
+    private void addDue(long messageId, long createdMicros) {
+        due.add(new Due(messageId, createdMicros));
+    }
+
+    /**
+     * Rounded up, so a message is never released before its time.
+     */
+    private long dueTick(long dueMillis) {
+        return Math.floorDiv(dueMillis + tickMillis - 1, tickMillis);
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(retryDelay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * createdAt as wheel data: microseconds (the column precision) since
+     * 1970-01-01T00:00, no time zone involved so it converts back exactly.
+     */
+    private static long toMicros(LocalDateTime createdAt) {
+        if (createdAt == null) {
+            return UNKNOWN;
+        }
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + createdAt.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
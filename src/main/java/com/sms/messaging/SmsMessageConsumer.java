@@ -1,117 +1,406 @@
 package com.sms.messaging;
 
-import com.sms.model.Message;
-import com.sms.repository.MessageRepository;
-import io.smallrye.common.annotation.Blocking;
+import com.sms.encoding.Segments;
+import com.sms.gateway.DeliveryGateway;
+import com.sms.gateway.DeliveryRequest;
+import com.sms.gateway.DeliveryResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.reactive.messaging.rabbitmq.RabbitMQRejectMetadata;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
 import org.jboss.logging.Logger;
 
-import java.util.Random;
-
 /**
  * Consumer that processes SMS messages from RabbitMQ.
- * 
- * Simulates SMS delivery with random success/failure.
- * Updates message status in the database after processing.
+ *
+ * Hands every message to the DeliveryGateway (carrier) and updates the
+ * message status in the database with the carrier's answer.
+ *
+ * Delivery pipeline:
+ * - The gateway is non-blocking, a delivery waiting on the carrier
+ *   holds no thread at all
+ * - At most max-in-flight deliveries run at the same time. The RabbitMQ
+ *   prefetch (max-outstanding-messages) uses the same value, so the
+ *   broker stops pushing once the pipeline is full
+ * - No DB transaction around the carrier call: the result goes to the
+ *   DeliveryStatusWriter, which writes many statuses in one batched UPDATE
+ * - Queue messages are acked (manually) once their status is written, so
+ *   acks go out in groups, one group per status flush
+ * - Queue messages that can't be processed (no messageId, the gateway or
+ *   the status write failed) are nacked, RabbitMQ moves them to the
+ *   dead-letter queue (see DeadLetterQueue for inspection and replay)
+ *
+ * Retries: a transient carrier failure (DeliveryResult.transientFailure)
+ * doesn't finish the message. It is written as RETRYING with the time of
+ * its next attempt and handed to the ScheduledDispatcher, which queues it
+ * again when that time has come, nothing waits in the consumer. The delay
+ * doubles per attempt from initial-delay up to max-delay, randomized
+ * between half and the full value (jitter), so a carrier outage doesn't
+ * come back as one synchronized wave. After max-attempts attempts, or on
+ * a permanent failure, the message is FAILED.
+ *
+ * Long messages: an event with more than one segment carries the part
+ * numbers still to deliver. The content is split at the segment
+ * boundaries (see Segments), every part goes to the gateway on its own
+ * (concurrently, same 8-bit reference) and its outcome is written to
+ * message_parts. The message status is the aggregate: DELIVERED once all
+ * parts are, FAILED if a part failed for good, otherwise a transient
+ * failure that is retried like any other, resending only the parts that
+ * are not DELIVERED yet.
+ *
+ * Priority lanes: HIGH messages arrive on their own queue (sms-incoming-high)
+ * with their own in-flight limit and prefetch (sms.delivery.high.max-in-flight).
+ * The permits of one lane are never used by the other, so a bulk backlog
+ * filling the normal lane can't delay a HIGH message.
+ *
+ * Metrics:
+ * - sms.delivery.processing: receive to status written, by outcome
+ *   (delivered, failed, retrying, skipped, error)
+ * - sms.delivery.lag: message createdAt to its final status, by status
+ * - sms.delivery.in.flight: deliveries currently in progress, by lane (normal, high)
  */
 @ApplicationScoped
 public class SmsMessageConsumer {
 
     private static final Logger LOG = Logger.getLogger(SmsMessageConsumer.class);
-    
+
+    @Inject
+    DeliveryGateway deliveryGateway;
+
+    @Inject
+    DeliveryStatusWriter statusWriter;
+
+    @Inject
+    ScheduledDispatcher scheduledDispatcher;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
     /**
-     * Success rate for simulated delivery (80% success).
+     * Maximum number of concurrent deliveries, keep in sync with the
+     * sms-incoming max-outstanding-messages (prefetch).
      */
-    private static final double SUCCESS_RATE = 0.8;
-    
-    private final Random random = new Random();
+    @ConfigProperty(name = "sms.delivery.max-in-flight", defaultValue = "256")
+    int maxInFlight;
 
-    @Inject
-    MessageRepository messageRepository;
+    /**
+     * Concurrent deliveries reserved for HIGH priority messages, keep in
+     * sync with the sms-incoming-high max-outstanding-messages.
+     */
+    @ConfigProperty(name = "sms.delivery.high.max-in-flight", defaultValue = "64")
+    int highMaxInFlight;
+
+    /**
+     * Delivery attempts per message, including the first one (1 = no retries).
+     */
+    @ConfigProperty(name = "sms.delivery.retry.max-attempts", defaultValue = "4")
+    int maxAttempts;
+
+    @ConfigProperty(name = "sms.delivery.retry.initial-delay", defaultValue = "2s")
+    Duration initialRetryDelay;
+
+    @ConfigProperty(name = "sms.delivery.retry.max-delay", defaultValue = "5m")
+    Duration maxRetryDelay;
+
+    private Semaphore inFlight;
+    private Semaphore highInFlight;
+    private Timer deliveredTimer;
+    private Timer failedTimer;
+    private Timer retryingTimer;
+    private Timer skippedTimer;
+    private Timer errorTimer;
+    private Timer deliveredLag;
+    private Timer failedLag;
+
+    @PostConstruct
+    void init() {
+        inFlight = new Semaphore(maxInFlight);
+        highInFlight = new Semaphore(highMaxInFlight);
+
+        Gauge.builder("sms.delivery.in.flight", inFlight, permits -> maxInFlight - permits.availablePermits())
+            .description("Deliveries currently in progress")
+            .tag("lane", "normal")
+            .register(meterRegistry);
+        Gauge.builder("sms.delivery.in.flight", highInFlight, permits -> highMaxInFlight - permits.availablePermits())
+            .description("Deliveries currently in progress")
+            .tag("lane", "high")
+            .register(meterRegistry);
+        deliveredTimer = processingTimer("delivered");
+        failedTimer = processingTimer("failed");
+        retryingTimer = processingTimer("retrying");
+        skippedTimer = processingTimer("skipped");
+        errorTimer = processingTimer("error");
+        deliveredLag = lagTimer("DELIVERED");
+        failedLag = lagTimer("FAILED");
+    }
+
+    private Timer processingTimer(String outcome) {
+        return Timer.builder("sms.delivery.processing")
+            .description("Time from receiving a queue message to its status being written")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private Timer lagTimer(String status) {
+        return Timer.builder("sms.delivery.lag")
+            .description("Time from message creation to its final status")
+            .tag("status", status)
+            .register(meterRegistry);
+    }
 
     /**
      * Process incoming messages from the queue.
-     * 
+     *
      * @Incoming: Listens to "sms-incoming" channel from application.properties
-     * @Blocking: Allows blocking operations (database access)
-     * @Transactional: Wraps in database transaction
-     * 
-     * @param event the message event from the queue
+     * @Acknowledgment(MANUAL): The queue message is acked once its status
+     *   is written, not when this method returns
+     *
+     * Returns right away so the connector can hand over the next message,
+     * the delivery continues when the gateway answers. Never blocks the
+     * event loop: with no permit free the message is requeued. The
+     * prefetch matches max-in-flight and a permit is released before its
+     * message is acked, so this only happens in a race with a release.
+     *
+     * @param queueMessage the message event from the queue
      */
     @Incoming("sms-incoming")
-    @Blocking
-    @Transactional
-    public void processMessage(JsonObject json) {
+    @Acknowledgment(Acknowledgment.Strategy.MANUAL)
+    public CompletionStage<Void> processMessage(org.eclipse.microprofile.reactive.messaging.Message<JsonObject> queueMessage) {
+        return process(queueMessage, inFlight);
+    }
+
+    /**
+     * Process HIGH priority messages, same pipeline with its own permits.
+     *
+     * @param queueMessage the message event from the high priority queue
+     */
+    @Incoming("sms-incoming-high")
+    @Acknowledgment(Acknowledgment.Strategy.MANUAL)
+    public CompletionStage<Void> processHighPriorityMessage(org.eclipse.microprofile.reactive.messaging.Message<JsonObject> queueMessage) {
+        return process(queueMessage, highInFlight);
+    }
+
+    private CompletionStage<Void> process(org.eclipse.microprofile.reactive.messaging.Message<JsonObject> queueMessage, Semaphore permits) {
+        if (!permits.tryAcquire()) {
+            LOG.debugf("No delivery permit free, requeueing: %s", queueMessage.getPayload());
+            return queueMessage.nack(new IllegalStateException("max-in-flight deliveries reached"),
+                Metadata.of(new RabbitMQRejectMetadata(true)));
+        }
+        long start = System.nanoTime();
+        try {
+            deliver(queueMessage, permits, start);
+        } catch (Exception e) {
+            LOG.errorf(e, "Message processing failed: %s", queueMessage.getPayload());
+            complete(queueMessage, permits, e);
+            errorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Deliver one message.
+     * The permit is released (and the queue message acked) once the status is written.
+     */
+    private void deliver(org.eclipse.microprofile.reactive.messaging.Message<JsonObject> queueMessage, Semaphore permits, long start) {
+        JsonObject json = queueMessage.getPayload();
         LOG.infof("Received message from queue: %s", json);
 
         // Extract messageId from JSON
         Long messageId = json.getLong("messageId");
 
         if (messageId == null) {
-            LOG.warn("Received message without messageId, skipping");
-            return;
-        }
-        
-        // Find the message in database
-        Message message = messageRepository.findById(messageId);
-        
-        if (message == null) {
-            LOG.warnf("Message not found in database: messageId=%d", messageId);
+            LOG.warn("Received message without messageId, dead-lettering it");
+            complete(queueMessage, permits, new IllegalArgumentException("Queue message without messageId"));
+            skippedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             return;
         }
 
-        // Simulate processing delay (like real SMS gateway)
-        simulateProcessingDelay();
+        // Partition key of the status write, missing in events from before it was sent along
+        LocalDateTime createdAt = json.getString("createdAt") == null ? null : LocalDateTime.parse(json.getString("createdAt"));
+        int attempt = json.getInteger("attempts", 0) + 1;
+        int segments = json.getInteger("segments", 1);
 
-        // Simulate delivery result
-        if (isDeliverySuccessful()) {
-            message.markAsDelivered();
-            LOG.infof("Message delivered successfully: messageId=%d", message.id);
+        CompletionStage<DeliveryResult> delivery;
+        if (segments > 1) {
+            delivery = deliverParts(messageId, createdAt, json);
         } else {
-            String errorMessage = generateRandomError();
-            message.markAsFailed(errorMessage);
-            LOG.warnf("Message delivery failed: messageId=%d, error=%s", message.id, errorMessage);
+            delivery = deliveryGateway.deliver(new DeliveryRequest(
+                messageId,
+                json.getString("sourceNumber"),
+                json.getString("destinationNumber"),
+                json.getString("content"),
+                1, 1, 0
+            ));
         }
 
-        // Update in database (handled by @Transactional)
-        messageRepository.persist(message);
+        // Hand to the carrier, then hand the answer to the status writer
+        delivery
+            .thenCompose(result -> writeStatus(messageId, result, createdAt, attempt))
+            .whenComplete((timer, failure) -> {
+                if (failure != null) {
+                    LOG.errorf(failure, "Message processing failed: messageId=%d", messageId);
+                }
+                complete(queueMessage, permits, failure);
+                (failure == null ? timer : errorTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            });
     }
 
     /**
-     * Simulate network delay (100-500ms).
+     * Deliver the parts of a long message that aren't DELIVERED yet, each
+     * with its part status written.
+     *
+     * @return the aggregated result of the parts sent now
      */
-    private void simulateProcessingDelay() {
-        try {
-            int delay = 100 + random.nextInt(400);
-            Thread.sleep(delay);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private CompletionStage<DeliveryResult> deliverParts(Long messageId, LocalDateTime createdAt, JsonObject json) {
+        String content = json.getString("content");
+        int[] ends = Segments.ends(content);
+        int reference = DeliveryRequest.referenceOf(messageId);
+
+        // Events without the list (replayed from before long messages) send all parts
+        JsonArray parts = json.getJsonArray("parts");
+        int count = parts == null ? ends.length : parts.size();
+
+        List<CompletableFuture<DeliveryResult>> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int part = parts == null ? i + 1 : parts.getInteger(i);
+            DeliveryRequest request = new DeliveryRequest(
+                messageId,
+                json.getString("sourceNumber"),
+                json.getString("destinationNumber"),
+                content.substring(part == 1 ? 0 : ends[part - 2], ends[part - 1]),
+                part, ends.length, reference
+            );
+            results.add(deliveryGateway.deliver(request)
+                .thenCompose(result -> statusWriter.markPart(messageId, createdAt, part, result).thenApply(written -> result))
+                .toCompletableFuture());
         }
+
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> aggregate(results));
     }
 
     /**
-     * Determine if delivery is successful based on SUCCESS_RATE.
+     * Delivered if every part was, else the first permanent failure, else
+     * the first transient one.
      */
-    private boolean isDeliverySuccessful() {
-        return random.nextDouble() < SUCCESS_RATE;
+    private static DeliveryResult aggregate(List<CompletableFuture<DeliveryResult>> results) {
+        DeliveryResult aggregate = DeliveryResult.success();
+        for (CompletableFuture<DeliveryResult> future : results) {
+            DeliveryResult result = future.join();
+            if (!result.delivered() && !result.transientFailure()) {
+                return result;
+            }
+            if (!result.delivered() && aggregate.delivered()) {
+                aggregate = result;
+            }
+        }
+        return aggregate;
     }
 
     /**
-     * Generate a random error message for failed deliveries.
+     * @return the processing timer matching the outcome
      */
-    private String generateRandomError() {
-        String[] errors = {
-            "Destination number not reachable",
-            "Network timeout",
-            "Invalid destination number",
-            "Carrier rejected message",
-            "Insufficient balance",
-            "Message blocked by carrier"
-        };
-        return errors[random.nextInt(errors.length)];
+    private CompletionStage<Timer> writeStatus(Long messageId, DeliveryResult result, LocalDateTime createdAt, int attempt) {
+        if (!result.delivered() && result.transientFailure() && attempt < maxAttempts) {
+            return retryLater(messageId, createdAt, result, attempt);
+        }
+
+        CompletionStage<Boolean> statusWrite = result.delivered()
+            ? statusWriter.markAsDelivered(messageId, createdAt)
+            : statusWriter.markAsFailed(messageId, createdAt, result.errorMessage());
+
+        return statusWrite.thenApply(written -> {
+            logResult(messageId, written, result);
+            if (!written) {
+                return skippedTimer;
+            }
+            recordLag(result.delivered() ? deliveredLag : failedLag, createdAt);
+            return result.delivered() ? deliveredTimer : failedTimer;
+        });
+    }
+
+    /**
+     * Write RETRYING and hand the message to the ScheduledDispatcher for
+     * its next attempt.
+     */
+    private CompletionStage<Timer> retryLater(Long messageId, LocalDateTime createdAt, DeliveryResult result, int attempt) {
+        LocalDateTime retryAt = LocalDateTime.now().plus(retryDelay(attempt));
+        return statusWriter.markAsRetrying(messageId, createdAt, result.errorMessage(), retryAt).thenApply(written -> {
+            if (!written) {
+                LOG.warnf("Message already processed (no longer PENDING): messageId=%d", messageId);
+                return skippedTimer;
+            }
+            LOG.warnf("Message delivery failed, retrying at %s: messageId=%d, attempt=%d, error=%s",
+                retryAt, messageId, attempt, result.errorMessage());
+            scheduledDispatcher.schedule(messageId, createdAt, retryAt);
+            return retryingTimer;
+        });
+    }
+
+    /**
+     * Exponential backoff with jitter: initial-delay * 2^(attempt - 1),
+     * capped at max-delay, then a random value between half and all of it.
+     *
+     * @param attempt the attempt that just failed (1 = first delivery)
+     */
+    private Duration retryDelay(int attempt) {
+        long ceiling = Math.min(maxRetryDelay.toMillis(), initialRetryDelay.toMillis() << Math.min(attempt - 1, 30));
+        return Duration.ofMillis(ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1));
+    }
+
+    /**
+     * Lag from createdAt (sent along in the event) to now, when the status
+     * was just written. Events published before createdAt was added have none.
+     */
+    private void recordLag(Timer lag, LocalDateTime createdAt) {
+        if (createdAt != null) {
+            lag.record(Duration.between(createdAt, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Free the in-flight permit, then ack (or nack on failure) the queue
+     * message: the ack lets the broker push the next one, which must find
+     * the permit free.
+     */
+    private void complete(org.eclipse.microprofile.reactive.messaging.Message<JsonObject> queueMessage, Semaphore permits, Throwable failure) {
+        permits.release();
+        if (failure == null) {
+            queueMessage.ack();
+        } else {
+            queueMessage.nack(failure);
+        }
+    }
+
+    /**
+     * A status write is skipped when the row is missing or no longer
+     * PENDING (redelivered queue message).
+     */
+    private void logResult(Long messageId, boolean written, DeliveryResult result) {
+        if (!written) {
+            LOG.warnf("Message already processed (no longer PENDING): messageId=%d", messageId);
+        } else if (result.delivered()) {
+            LOG.infof("Message delivered successfully: messageId=%d", messageId);
+        } else {
+            LOG.warnf("Message delivery failed: messageId=%d, error=%s", messageId, result.errorMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,21 +1,77 @@
 package com.sms.messaging;
 
+import com.sms.model.Message;
+import com.sms.model.MessagePriority;
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Event object sent to RabbitMQ for async processing.
  * 
- * This is a simple POJO that carries the message ID through the queue.
- * The consumer will fetch full message details from the database.
+ * This is a simple POJO that carries the message through the queue.
+ * It holds everything the carrier needs, so the consumer can deliver
+ * without reading the message back from the database.
+ * 
+ * createdAt travels along so the consumer can measure the lag from
+ * accepting the message to its final status.
+ * 
+ * priority selects the queue the event is published to (see SmsMessageProducer).
+ * 
+ * attempts counts the deliveries already tried, so the consumer knows
+ * when a transient failure has used up its retries.
+ * 
+ * A long message travels as one event: segments is its number of SMS
+ * segments and parts lists the ones still to deliver (null for a single
+ * SMS), the consumer sends each part on its own.
  */
 public class SmsMessageEvent {
 
     private Long messageId;
+    private String sourceNumber;
+    private String destinationNumber;
+    private String content;
+    private LocalDateTime createdAt;
+    private MessagePriority priority;
+    private int attempts;
+    private int segments;
+    private List<Integer> parts;
 
     // Default constructor (required for JSON deserialization)
     public SmsMessageEvent() {
     }
 
-    public SmsMessageEvent(Long messageId) {
+    public SmsMessageEvent(Long messageId, String sourceNumber, String destinationNumber, String content, LocalDateTime createdAt,
+                           MessagePriority priority, int attempts, int segments, List<Integer> parts) {
         this.messageId = messageId;
+        this.sourceNumber = sourceNumber;
+        this.destinationNumber = destinationNumber;
+        this.content = content;
+        this.createdAt = createdAt;
+        this.priority = priority;
+        this.attempts = attempts;
+        this.segments = segments;
+        this.parts = parts;
+    }
+
+    /**
+     * Factory method to create the queue event for a persisted message.
+     * 
+     * @param message the persisted entity
+     * @param parts part numbers still to deliver, null for a single SMS
+     * @return SmsMessageEvent for the queue
+     */
+    public static SmsMessageEvent fromEntity(Message message, List<Integer> parts) {
+        return new SmsMessageEvent(
+            message.id,
+            message.sourceNumber,
+            message.destinationNumber,
+            message.getContent(),
+            message.createdAt,
+            message.priority == null ? MessagePriority.NORMAL : message.priority,
+            message.attempts == null ? 0 : message.attempts,
+            message.segments == null ? 1 : message.segments,
+            parts
+        );
     }
 
     public Long getMessageId() {
@@ -26,8 +82,72 @@ public class SmsMessageEvent {
         this.messageId = messageId;
     }
 
+    public String getSourceNumber() {
+        return sourceNumber;
+    }
+
+    public void setSourceNumber(String sourceNumber) {
+        this.sourceNumber = sourceNumber;
+    }
+
+    public String getDestinationNumber() {
+        return destinationNumber;
+    }
+
+    public void setDestinationNumber(String destinationNumber) {
+        this.destinationNumber = destinationNumber;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public MessagePriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(MessagePriority priority) {
+        this.priority = priority;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+
+    public void setSegments(int segments) {
+        this.segments = segments;
+    }
+
+    public List<Integer> getParts() {
+        return parts;
+    }
+
+    public void setParts(List<Integer> parts) {
+        this.parts = parts;
+    }
+
     @Override
     public String toString() {
         return "SmsMessageEvent{messageId=" + messageId + "}";
     }
-}
\ No newline at end of file
+}
@@ -1,38 +1,117 @@
 package com.sms.messaging;
 
+import com.sms.model.MessagePriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
 import org.jboss.logging.Logger;
 
 /**
  * Producer that sends SMS messages to RabbitMQ for async processing.
  * 
  * Uses SmallRye Reactive Messaging to interact with RabbitMQ.
- * Messages are sent to the "sms-outgoing" channel defined in application.properties.
+ * Messages are sent to the "sms-outgoing" channel defined in application.properties,
+ * HIGH priority messages to "sms-outgoing-high" (routing key sms.send.high,
+ * own queue), so they never wait behind bulk traffic.
+ * 
+ * Metrics:
+ * - sms.producer.publish: time from emit to broker confirm
+ * - sms.producer.publish.failures: publishes the broker rejected (or that failed)
  */
 @ApplicationScoped
 public class SmsMessageProducer {
 
     private static final Logger LOG = Logger.getLogger(SmsMessageProducer.class);
 
+    /**
+     * The buffer must hold at least one full batch chunk (sms.batch.chunk-size),
+     * batch events are emitted back to back before any ack comes back.
+     */
     @Inject
     @Channel("sms-outgoing")
+    @OnOverflow(value = OnOverflow.Strategy.BUFFER, bufferSize = 4096)
     Emitter<SmsMessageEvent> emitter;
 
+    @Inject
+    @Channel("sms-outgoing-high")
+    @OnOverflow(value = OnOverflow.Strategy.BUFFER, bufferSize = 4096)
+    Emitter<SmsMessageEvent> highPriorityEmitter;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private Timer publishTimer;
+    private Counter publishFailures;
+
+    @PostConstruct
+    void init() {
+        publishTimer = Timer.builder("sms.producer.publish")
+            .description("Time from emit to broker confirm")
+            .register(meterRegistry);
+        publishFailures = Counter.builder("sms.producer.publish.failures")
+            .description("Failed publishes")
+            .register(meterRegistry);
+    }
+
     /**
      * Send a message to the queue for async processing.
      * 
-     * @param messageId the ID of the message to process
+     * @param event the event of the message to process
      */
-    public void sendToQueue(Long messageId) {
-        SmsMessageEvent event = new SmsMessageEvent(messageId);
-        
+    public void sendToQueue(SmsMessageEvent event) {
         LOG.infof("Sending message to queue: %s", event);
         
-        emitter.send(event);
+        publish(event);
         
-        LOG.infof("Message sent to queue successfully: messageId=%d", messageId);
+        LOG.infof("Message sent to queue successfully: messageId=%d", event.getMessageId());
+    }
+
+    /**
+     * Send a batch of messages to the queue.
+     * 
+     * All events are emitted back to back (pipelined) and the acks are
+     * awaited together, instead of one publish/log round per message.
+     * 
+     * @param events the events of the messages to process
+     * @param confirmTimeout how long to wait for the broker to confirm all of them
+     * @throws java.util.concurrent.CompletionException if a publish failed or the
+     *         confirms didn't all come in time (cause TimeoutException)
+     */
+    public void sendBatchToQueue(List<SmsMessageEvent> events, Duration confirmTimeout) {
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < acks.length; i++) {
+            acks[i] = publish(events.get(i)).toCompletableFuture();
+        }
+
+        CompletableFuture.allOf(acks).orTimeout(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS).join();
+
+        LOG.infof("Batch sent to queue successfully: count=%d", events.size());
+    }
+
+    /**
+     * Emit one event to the channel of its priority, records the publish
+     * latency (or the failure) once the broker answers.
+     */
+    private CompletionStage<Void> publish(SmsMessageEvent event) {
+        long start = System.nanoTime();
+        Emitter<SmsMessageEvent> lane = event.getPriority() == MessagePriority.HIGH ? highPriorityEmitter : emitter;
+        return lane.send(event).whenComplete((ignored, failure) -> {
+            if (failure == null) {
+                publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } else {
+                publishFailures.increment();
+            }
+        });
     }
-}
\ No newline at end of file
+}
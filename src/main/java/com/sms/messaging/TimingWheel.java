@@ -0,0 +1,162 @@
+package com.sms.messaging;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel of message IDs.
+ *
+ * Time is counted in ticks. Level 0 has one slot per tick, every level
+ * above has slots `slots` times wider, so 4 levels of 512 slots with a
+ * 100 ms tick cover ~51 s, ~7 h, ~155 days and beyond:
+ *
+ * - add: O(1), the entry goes straight into the slot of the coarsest
+ *   level it needs
+ * - advance: every tick fires one level 0 slot. When a level 0 round
+ *   completes, the next level 1 slot is spread over level 0 (cascade),
+ *   and so on upwards, so every entry moves at most once per level
+ *
+ * Every entry carries one long of data besides its ID (the
+ * ScheduledDispatcher keeps the createdAt of the message there). Slots
+ * store IDs, data and due ticks in primitive arrays, no object per entry,
+ * so millions of entries stay cheap.
+ *
+ * Not thread-safe: owned by one thread (see ScheduledDispatcher).
+ */
+public class TimingWheel {
+
+    /**
+     * Entries of one slot, grown on demand and released once drained.
+     */
+    private static final class Slot {
+        long[] ids = new long[8];
+        long[] data = new long[8];
+        long[] dueTicks = new long[8];
+        int size;
+
+        void add(long id, long datum, long dueTick) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                data = Arrays.copyOf(data, size * 2);
+                dueTicks = Arrays.copyOf(dueTicks, size * 2);
+            }
+            ids[size] = id;
+            data[size] = datum;
+            dueTicks[size] = dueTick;
+            size++;
+        }
+    }
+
+    /**
+     * Receives the entries that became due.
+     */
+    @FunctionalInterface
+    public interface Expiry {
+        void expired(long id, long data);
+    }
+
+    private final int slotBits;
+    private final int mask;
+    private final Slot[][] levels;
+    private long currentTick;
+    private long size;
+
+    /**
+     * @param slots slots per level (rounded up to a power of two)
+     * @param levels number of levels
+     * @param startTick the current tick
+     */
+    public TimingWheel(int slots, int levels, long startTick) {
+        this.slotBits = 32 - Integer.numberOfLeadingZeros(Math.max(slots, 2) - 1);
+        this.mask = (1 << slotBits) - 1;
+        this.levels = new Slot[levels][1 << slotBits];
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Add an entry.
+     *
+     * @param id the message ID
+     * @param data the data kept with the ID
+     * @param dueTick the tick the entry is due at
+     * @param expiry receives the entry right away if it is already due
+     * @throws IllegalArgumentException if dueTick is beyond the range of the top level
+     */
+    public void add(long id, long data, long dueTick, Expiry expiry) {
+        if (dueTick <= currentTick) {
+            expiry.expired(id, data);
+            return;
+        }
+
+        for (int level = 0; level < levels.length; level++) {
+            int shift = slotBits * level;
+            // Slots to go on this level, must stay within one round
+            if ((dueTick >> shift) - (currentTick >> shift) <= mask) {
+                int index = (int) (dueTick >> shift) & mask;
+                Slot slot = levels[level][index];
+                if (slot == null) {
+                    slot = levels[level][index] = new Slot();
+                }
+                slot.add(id, data, dueTick);
+                size++;
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Due tick " + dueTick + " is out of range of the timing wheel");
+    }
+
+    /**
+     * Move the wheel forward to a tick, firing every entry due up to it.
+     *
+     * @param tick the current tick
+     * @param expiry receives the due entries
+     */
+    public void advanceTo(long tick, Expiry expiry) {
+        while (currentTick < tick) {
+            currentTick++;
+
+            // Cascade coarser levels whose slot boundary was reached, top down
+            for (int level = levels.length - 1; level > 0; level--) {
+                int shift = slotBits * level;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    cascade(level, (int) (currentTick >> shift) & mask, expiry);
+                }
+            }
+
+            int index = (int) currentTick & mask;
+            Slot slot = levels[0][index];
+            if (slot != null) {
+                levels[0][index] = null;
+                size -= slot.size;
+                for (int i = 0; i < slot.size; i++) {
+                    expiry.expired(slot.ids[i], slot.data[i]);
+                }
+            }
+        }
+    }
+
+    private void cascade(int level, int index, Expiry expiry) {
+        Slot slot = levels[level][index];
+        if (slot == null) {
+            return;
+        }
+        levels[level][index] = null;
+        size -= slot.size;
+        for (int i = 0; i < slot.size; i++) {
+            add(slot.ids[i], slot.data[i], slot.dueTicks[i], expiry);
+        }
+    }
+
+    /**
+     * @return the tick the wheel is at
+     */
+    public long currentTick() {
+        return currentTick;
+    }
+
+    /**
+     * @return number of entries waiting in the wheel
+     */
+    public long size() {
+        return size;
+    }
+}
@@ -0,0 +1,69 @@
+package com.sms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity representing an Idempotency-Key that was used for a message.
+ * 
+ * The key is the primary key, so a retried request can never be stored
+ * twice. It lives in its own table because a partitioned messages table
+ * can only enforce uniqueness together with created_at. createdAt is the
+ * createdAt of the message, the lookup uses it to read a single partition.
+ *
+ * Once partitioned (db/partition-messages.sql) the table is split by
+ * keyMonth and its primary key becomes (idempotency_key, key_month):
+ * a key is unique within a month, the send path looks it up before
+ * storing a message to catch a retry from the previous month.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+
+    /**
+     * The key sent by the client
+     */
+    @Id
+    @Column(name = "idempotency_key")
+    public String idempotencyKey;
+
+    /**
+     * ID of the message stored for the key
+     */
+    @Column(name = "message_id", nullable = false)
+    public Long messageId;
+
+    /**
+     * Timestamp when the message was created
+     */
+    @Column(name = "created_at", nullable = false)
+    public LocalDateTime createdAt;
+
+    /**
+     * First day of the month of createdAt, the partition key
+     */
+    @Column(name = "key_month", nullable = false)
+    public LocalDate keyMonth;
+
+    /**
+     * Default constructor required by JPA 
+     */
+    public IdempotencyKey() {
+    }
+
+    /**
+     * @param idempotencyKey The key sent by the client
+     * @param message The (already persisted) message
+     */
+    public IdempotencyKey(String idempotencyKey, Message message) {
+        this.idempotencyKey = idempotencyKey;
+        this.messageId = message.id;
+        this.createdAt = message.createdAt;
+        this.keyMonth = message.createdAt.toLocalDate().withDayOfMonth(1);
+    }
+
+}
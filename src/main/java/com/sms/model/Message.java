@@ -4,11 +4,15 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import com.sms.encoding.Gsm7;
+import com.sms.encoding.Segments;
+import com.sms.encoding.SmsEncoding;
+import com.sms.validation.PhoneNumbers;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 /**
  * JPA Entity representing an SMS Message.
@@ -17,33 +21,81 @@ import java.time.LocalDateTime;
  * are handled through MessageRepository (Repository pattern).
  */
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    // History lookups: one (number, created_at, id) range scan per side, already in page order
+    @Index(name = "idx_messages_source_e164", columnList = "source_e164, created_at, id"),
+    @Index(name = "idx_messages_destination_e164", columnList = "destination_e164, created_at, id"),
+    // Scheduled sends and retries, read in due order by the ScheduledDispatcher
+    @Index(name = "idx_messages_status_send_at", columnList = "status, send_at, id")
+})
 public class Message {
+
+    /**
+     * Size of the longest packed content: MAX_CONTENT_LENGTH septets.
+     */
+    private static final int PACKED_CONTENT_LENGTH = (Segments.MAX_CONTENT_LENGTH * 7 + 7) / 8;
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "messages_seq")
     public Long id;
 
     /**
-     * The sender's phone number
+     * The sender's phone number, canonical E.164
      * Example: "+306912341524"
      */
     @Column(name = "source_number", nullable = false)
     public String sourceNumber;
 
     /**
-     * The recipient's phone number
+     * The sender's phone number as a number, used for lookups
+     * Example: 306912341524
+     */
+    @Column(name = "source_e164")
+    public Long sourceE164;
+
+    /**
+     * The recipient's phone number, canonical E.164
      * Example: "+306912341525"
      */
     @Column(name = "destination_number", nullable = false)
     public String destinationNumber;
 
     /**
-     * The content of the SMS message
-     * Example: "Hello, this is a test message."
+     * The recipient's phone number as a number, used for lookups
+     * Example: 306912341525
+     */
+    @Column(name = "destination_e164")
+    public Long destinationE164;
+
+    /**
+     * The content of the SMS message as text, for UCS-2 content and rows
+     * written before packed storage (null when packed, see getContent)
+     * Example: "Γειά σου"
+     */
+    @Column(name = "message_content", length = Segments.MAX_CONTENT_LENGTH)
+    public String contentText;
+
+    /**
+     * How the content is stored: GSM7 packed in contentPacked, UCS2 as
+     * text in contentText (null in rows written before packed storage: text)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "content_encoding")
+    public SmsEncoding contentEncoding;
+
+    /**
+     * GSM-7 content packed into septets (Gsm7.pack), 7/8 of the text size
+     */
+    @Column(name = "content_packed", length = PACKED_CONTENT_LENGTH)
+    public byte[] contentPacked;
+
+    /**
+     * Number of SMS segments the content is sent as (null in rows written
+     * before long messages existed: 1). Above 1, the delivery of each part
+     * is tracked in message_parts (see MessagePart).
      */
-    @Column(name = "message_content", nullable = false, length = 160)
-    public String content;
+    @Column(name = "segments")
+    public Integer segments;
 
     /**
      * Current status of the message
@@ -52,6 +104,13 @@ public class Message {
     @Column(name = "status", nullable = false)
     public MessageStatus status;
 
+    /**
+     * Delivery lane (null in rows written before priorities existed: NORMAL)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority")
+    public MessagePriority priority;
+
     /**
      * Error message if delivery failed
      */
@@ -59,7 +118,29 @@ public class Message {
     public String errorMessage;
 
     /**
-     * Timestamp when the message was created
+     * When a SCHEDULED message becomes due, or a RETRYING message is tried
+     * next (null for immediate sends)
+     */
+    @Column(name = "send_at")
+    public LocalDateTime sendAt;
+
+    /**
+     * Delivery attempts made so far (null in rows written before retries existed: 0)
+     */
+    @Column(name = "attempts")
+    public Integer attempts;
+
+    /**
+     * Idempotency-Key the client sent with the request (nullable).
+     * Kept unique by the idempotency_keys table (see IdempotencyKey).
+     */
+    @Column(name = "idempotency_key")
+    public String idempotencyKey;
+
+    /**
+     * Timestamp when the message was created, the partition key (see
+     * MessagePartitions). Microsecond precision like the column, so the
+     * value passed along with the id matches the stored one exactly.
      */
     @Column(name = "created_at", nullable = false)
     public LocalDateTime createdAt;
@@ -79,18 +160,79 @@ public class Message {
     /**
      * Creates a new message with PENDING status.
      * Automatically sets createdAt and updatedAt timestamps.
+     * The phone numbers are stored in canonical form (see PhoneNumbers).
      * 
-     * @param sourceNumber The sender's phone number
-     * @param destinationNumber The recipient's phone number
-     * @param content The content of the SMS message
+     * @param sourceNumber The sender's phone number (already validated)
+     * @param destinationNumber The recipient's phone number (already validated)
+     * @param content The content of the SMS message (already validated)
+     * @throws IllegalArgumentException if a phone number isn't valid
      */
 
     public Message(String sourceNumber, String destinationNumber, String content) {
-        this.sourceNumber = sourceNumber;
-        this.destinationNumber = destinationNumber;
-        this.content = content;
+        this.sourceE164 = PhoneNumbers.parseValid(sourceNumber);
+        this.sourceNumber = PhoneNumbers.format(sourceE164);
+        this.destinationE164 = PhoneNumbers.parseValid(destinationNumber);
+        this.destinationNumber = PhoneNumbers.format(destinationE164);
+        setContent(content);
+        this.segments = Segments.count(content);
+        this.status = MessageStatus.PENDING;
+        this.priority = MessagePriority.NORMAL;
+        this.attempts = 0;
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * @return the content of the SMS message, unpacked if stored as GSM-7
+     */
+    public String getContent() {
+        return contentEncoding == SmsEncoding.GSM7 ? Gsm7.unpack(contentPacked) : contentText;
+    }
+
+    /**
+     * Stores the content in its smallest form: packed septets if every
+     * character is in the GSM-7 alphabet, text otherwise.
+     *
+     * @param content The content of the SMS message
+     */
+    public void setContent(String content) {
+        if (SmsEncoding.of(content) == SmsEncoding.GSM7) {
+            this.contentEncoding = SmsEncoding.GSM7;
+            this.contentPacked = Gsm7.pack(content);
+            this.contentText = null;
+        } else {
+            this.contentEncoding = SmsEncoding.UCS2;
+            this.contentPacked = null;
+            this.contentText = content;
+        }
+    }
+
+    /**
+     * Holds the message back until sendAt (status SCHEDULED).
+     *
+     * @param sendAt when the message should be queued
+     */
+    public void scheduleAt(LocalDateTime sendAt) {
+        this.status = MessageStatus.SCHEDULED;
+        this.sendAt = sendAt;
+    }
+
+    /**
+     * Marks a SCHEDULED or RETRYING message as due: it is queued like a new message.
+     */
+    public void markAsDue() {
+        this.status = MessageStatus.PENDING;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Queues a FAILED message again (bulk re-drive), with a fresh set of
+     * delivery attempts.
+     */
+    public void requeue() {
         this.status = MessageStatus.PENDING;
-        this.createdAt = LocalDateTime.now();
+        this.errorMessage = null;
+        this.attempts = 0;
         this.updatedAt = LocalDateTime.now();
     }
 
@@ -0,0 +1,95 @@
+package com.sms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity representing one segment of a concatenated (long) message.
+ * 
+ * Each part is a delivery unit of its own: the consumer submits the parts
+ * of a message separately, and a retry only resends the parts that were
+ * not DELIVERED yet. The status of the Message is the aggregate of its
+ * parts (DELIVERED once all are, FAILED if one failed for good).
+ * 
+ * Rows are written with the message, one per segment, and only exist for
+ * messages with more than one segment. They carry the createdAt of the
+ * message, so they sit in the same monthly partition as the message and
+ * are retired with it (MessagePartitions).
+ */
+@Entity
+@Table(name = "message_parts", indexes = {
+    // The parts of a message, and the key of the status updates (created_at
+    // is the partition key once message_parts is partitioned)
+    @Index(name = "idx_message_parts_message", columnList = "message_id, part_number, created_at", unique = true)
+})
+public class MessagePart {
+
+    @Id
+    @PooledSequence(name = "message_parts_seq")
+    public Long id;
+
+    /**
+     * ID of the message the part belongs to
+     */
+    @Column(name = "message_id", nullable = false)
+    public Long messageId;
+
+    /**
+     * Position in the message, 1-based (the part number of the UDH)
+     */
+    @Column(name = "part_number", nullable = false)
+    public Integer partNumber;
+
+    /**
+     * PENDING until the first attempt, then DELIVERED or FAILED (a FAILED
+     * part is sent again when the message is retried or re-driven)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    public MessageStatus status;
+
+    /**
+     * Error message if delivery of the part failed
+     */
+    @Column(name = "error_message")
+    public String errorMessage;
+
+    /**
+     * createdAt of the message, the partition key
+     */
+    @Column(name = "created_at", nullable = false)
+    public LocalDateTime createdAt;
+
+    /**
+     * Timestamp when the part was last updated
+     */
+    @Column(name = "updated_at", nullable = false)
+    public LocalDateTime updatedAt;
+
+    /**
+     * Default constructor required by JPA 
+     */
+    public MessagePart() {
+    }
+
+    /**
+     * Creates a PENDING part.
+     * 
+     * @param message The (already persisted) message
+     * @param partNumber Position in the message, 1-based
+     */
+    public MessagePart(Message message, int partNumber) {
+        this.messageId = message.id;
+        this.partNumber = partNumber;
+        this.createdAt = message.createdAt;
+        this.status = MessageStatus.PENDING;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+}
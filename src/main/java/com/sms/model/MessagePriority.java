@@ -0,0 +1,19 @@
+package com.sms.model;
+
+/**
+ * Delivery lane of a message.
+ *
+ * Each priority has its own RabbitMQ queue and its own share of the
+ * consumer's concurrency, so a bulk campaign can't delay HIGH messages.
+ */
+public enum MessagePriority {
+
+    /**
+     * Time-critical messages (OTP codes, alerts)
+     */
+    HIGH,
+    /**
+     * Everything else, including bulk campaigns (the default)
+     */
+    NORMAL
+}
@@ -5,10 +5,18 @@ package com.sms.model;
  */
 public enum MessageStatus {
     
+    /**
+     * Message is stored and waits for its sendAt time, it is not queued yet
+     */
+    SCHEDULED,
     /**
      * Message has been received and is waiting to be processed
      */
     PENDING,
+    /**
+     * Delivery failed with a transient error, the message is queued again at sendAt
+     */
+    RETRYING,
     /**
      * Message has been successfully delivered to the recipient
      */
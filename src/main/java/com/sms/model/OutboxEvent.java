@@ -0,0 +1,77 @@
+package com.sms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity representing a queue event waiting to be published (Transactional Outbox).
+ * 
+ * The row is written in the same transaction as the Message it points to,
+ * so an event exists if and only if the message was committed. The
+ * OutboxRelay publishes the rows to RabbitMQ and deletes them afterwards.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    // Claiming the HIGH lane first
+    @Index(name = "idx_outbox_events_priority", columnList = "priority, id")
+})
+public class OutboxEvent {
+
+    /**
+     * Publish order: the relay drains rows by ascending id
+     */
+    @Id
+    @PooledSequence(name = "outbox_events_seq")
+    public Long id;
+
+    /**
+     * ID of the message to process
+     */
+    @Column(name = "message_id", nullable = false)
+    public Long messageId;
+
+    /**
+     * createdAt of the message, so the relay reads it from its partition
+     * only (null on rows written before it was added)
+     */
+    @Column(name = "message_created_at")
+    public LocalDateTime messageCreatedAt;
+
+    /**
+     * Lane of the message, HIGH events are relayed first (null: NORMAL)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority")
+    public MessagePriority priority;
+
+    /**
+     * Timestamp when the event was written
+     */
+    @Column(name = "created_at", nullable = false)
+    public LocalDateTime createdAt;
+
+    /**
+     * Default constructor required by JPA 
+     */
+    public OutboxEvent() {
+    }
+
+    /**
+     * Creates a new outbox event for a message.
+     * 
+     * @param message The (already persisted) message
+     */
+    public OutboxEvent(Message message) {
+        this.messageId = message.id;
+        this.messageCreatedAt = message.createdAt;
+        this.priority = message.priority;
+        this.createdAt = LocalDateTime.now();
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.sms.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * ID generation from a database sequence with a pooled-lo optimizer.
+ * 
+ * Replaces GenerationType.IDENTITY on high-volume tables: with IDENTITY
+ * Hibernate must execute every INSERT on its own to read the ID back,
+ * which silently disables JDBC batching. With a pooled sequence the IDs
+ * are known before the INSERT and only one nextval() call is needed per
+ * allocation-size IDs.
+ * 
+ * Usage:
+ * @Id
+ * @PooledSequence(name = "messages_seq")
+ * public Long id;
+ * 
+ * The allocation size comes from sms.id.allocation-size (see PooledSequenceGenerator).
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PooledSequence {
+
+    /**
+     * Name of the database sequence
+     */
+    String name();
+}
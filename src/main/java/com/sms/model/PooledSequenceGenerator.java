@@ -0,0 +1,45 @@
+package com.sms.model;
+
+import java.util.Properties;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.hibernate.MappingException;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * Hibernate generator behind @PooledSequence.
+ * 
+ * A plain @SequenceGenerator only takes the allocation size as a
+ * compile-time constant, this generator reads it from configuration
+ * when the SessionFactory starts:
+ * 
+ * sms.id.allocation-size=50
+ * 
+ * The database sequence is created with INCREMENT BY allocation-size.
+ * When changing the value on an existing database, the sequence must be
+ * altered accordingly (ALTER SEQUENCE messages_seq INCREMENT BY n).
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    static final String ALLOCATION_SIZE_PROPERTY = "sms.id.allocation-size";
+    static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String sequenceName;
+
+    public PooledSequenceGenerator(PooledSequence config) {
+        this.sequenceName = config.name();
+    }
+
+    @Override
+    public void configure(GeneratorCreationContext creationContext, Properties parameters) throws MappingException {
+        int allocationSize = ConfigProvider.getConfig()
+            .getOptionalValue(ALLOCATION_SIZE_PROPERTY, Integer.class)
+            .orElse(DEFAULT_ALLOCATION_SIZE);
+
+        parameters.setProperty(SEQUENCE_PARAM, sequenceName);
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.setProperty(OPT_PARAM, "pooled-lo");
+
+        super.configure(creationContext, parameters);
+    }
+}
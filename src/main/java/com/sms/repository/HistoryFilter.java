@@ -0,0 +1,21 @@
+package com.sms.repository;
+
+import com.sms.model.MessageStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Filter and keyset position for history queries.
+ * 
+ * Pages are ordered by (createdAt desc, id desc). The keyset (afterCreatedAt,
+ * afterId) is the last row of the previous page, both null for the first page.
+ * 
+ * @param since only messages created at or after this time (nullable)
+ * @param until only messages created before this time (nullable)
+ * @param status only messages with this status (nullable)
+ * @param afterCreatedAt createdAt of the last row of the previous page (nullable)
+ * @param afterId id of the last row of the previous page (nullable)
+ * @param limit maximum number of rows to return
+ */
+public record HistoryFilter(LocalDateTime since, LocalDateTime until, MessageStatus status,
+                            LocalDateTime afterCreatedAt, Long afterId, int limit) {
+}
@@ -0,0 +1,16 @@
+package com.sms.repository;
+
+import com.sms.model.IdempotencyKey;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Repository for IdempotencyKey database operations.
+ * 
+ * Only written by the send path, the lookup joins the message
+ * (MessageRepository.findByIdempotencyKey).
+ */
+@ApplicationScoped
+public class IdempotencyKeyRepository implements PanacheRepositoryBase<IdempotencyKey, String> {
+
+}
@@ -0,0 +1,57 @@
+package com.sms.repository;
+
+import com.sms.model.MessagePart;
+import com.sms.model.MessageStatus;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository for MessagePart database operations.
+ * 
+ * Written by the send path, read by the OutboxRelay. The part statuses
+ * are updated by the DeliveryStatusWriter with plain JDBC batches.
+ */
+@ApplicationScoped
+public class MessagePartRepository implements PanacheRepository<MessagePart> {
+
+    /**
+     * Part numbers still to deliver, for many messages in one query.
+     * 
+     * With the createdAt range of the messages, only the partitions of
+     * those months are read.
+     * 
+     * @param messageIds IDs of multipart messages
+     * @param createdFrom lowest createdAt of the messages (nullable, then by ID only)
+     * @param createdTo highest createdAt of the messages (nullable, then by ID only)
+     * @return part numbers (ascending) per message ID, messages without
+     *         undelivered parts are missing from the map
+     */
+    public Map<Long, List<Integer>> findUndeliveredParts(Collection<Long> messageIds,
+                                                         LocalDateTime createdFrom, LocalDateTime createdTo) {
+        boolean bounded = createdFrom != null && createdTo != null;
+        var query = getEntityManager()
+            .createQuery("select p.messageId, p.partNumber from MessagePart p"
+                + " where p.messageId in :ids and p.status <> :delivered"
+                + (bounded ? " and p.createdAt between :createdFrom and :createdTo" : "")
+                + " order by p.messageId, p.partNumber", Object[].class)
+            .setParameter("ids", messageIds)
+            .setParameter("delivered", MessageStatus.DELIVERED);
+        if (bounded) {
+            query.setParameter("createdFrom", createdFrom).setParameter("createdTo", createdTo);
+        }
+        List<Object[]> rows = query.getResultList();
+
+        Map<Long, List<Integer>> parts = new HashMap<>();
+        for (Object[] row : rows) {
+            parts.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Integer) row[1]);
+        }
+        return parts;
+    }
+
+}
@@ -2,9 +2,24 @@ package com.sms.repository;
 
 import com.sms.model.Message;
 import com.sms.model.MessageStatus;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Parameters;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.StatelessSession;
+import org.hibernate.jpa.AvailableHints;
+import org.hibernate.query.SelectionQuery;
 
 /**
  * Repository for Message entity database operations.
@@ -17,25 +32,372 @@ import java.util.List;
  * - PanacheEntity: Active Record pattern (Message.findById())
  * - PanacheRepository: Repository pattern (messageRepository.findById())
  * 
+ * Partitioning: when messages is partitioned by month on created_at
+ * (see MessagePartitions), PostgreSQL only reads the partitions a query
+ * can match. Time filters are therefore always plain comparisons on
+ * created_at (since/until, from/to, the history cursor), never wrapped in
+ * a function or cast, so they prune at planning or execution time.
+ * Lookups by id take createdAt along (exact, or the range of a batch, or
+ * a lower bound for GET by id), an id alone would probe the primary key
+ * of every partition.
+ * 
  * @see <a href="https://quarkus.io/guides/hibernate-orm-panache#solution-2-using-the-repository-pattern">Panache Repository Guide</a>
  */
 @ApplicationScoped
 public class MessageRepository implements PanacheRepository<Message>{
+
+    /**
+     * Statuses of messages waiting in the ScheduledDispatcher for their sendAt.
+     */
+    private static final List<MessageStatus> WAITING = List.of(MessageStatus.SCHEDULED, MessageStatus.RETRYING);
+
+    @Inject
+    StatelessSession statelessSession;
+
     /**
      * Find all messages sent from a specific phone number.
-     * @param sourceNumber the sender's phone number
+     * @param sourceNumber the sender's phone number (PhoneNumbers.parse)
      * @return list of messages from this source
      */
-    public List<Message> findBySourceNumber(String sourceNumber) {
-        return list("sourceNumber", sourceNumber);
+    public List<Message> findBySourceNumber(long sourceNumber) {
+        return list("sourceE164", sourceNumber);
     }
 
     /**
      * Find all messages sent to a specific phone number.
-     * @param destinationNumber the recipient's phone number
+     * @param destinationNumber the recipient's phone number (PhoneNumbers.parse)
+     */
+    public List<Message> findByDestinationNumber(long destinationNumber) {
+        return list("destinationE164", destinationNumber);
+    }
+
+    /**
+     * Find one page of messages sent from a specific phone number.
+     * @param sourceNumber the sender's phone number (PhoneNumbers.parse)
+     * @param filter filters and keyset position
+     * @return up to filter.limit() messages, newest first
      */
-    public List<Message> findByDestinationNumber(String destinationNumber) {
-        return list("destinationNumber", destinationNumber);
+    public List<Message> findPageBySourceNumber(long sourceNumber, HistoryFilter filter) {
+        return findPage("sourceE164 = :number", sourceNumber, filter);
+    }
+
+    /**
+     * Find one page of messages sent to a specific phone number.
+     * @param destinationNumber the recipient's phone number (PhoneNumbers.parse)
+     * @param filter filters and keyset position
+     * @return up to filter.limit() messages, newest first
+     */
+    public List<Message> findPageByDestinationNumber(long destinationNumber, HistoryFilter filter) {
+        return findPage("destinationE164 = :number", destinationNumber, filter);
+    }
+
+    /**
+     * Find one page of messages sent from or to a specific phone number.
+     * 
+     * One SQL statement, the union of two index range scans (see phoneHistorySql).
+     * 
+     * @param phoneNumber the sender's or recipient's phone number (PhoneNumbers.parse)
+     * @param filter filters and keyset position
+     * @return up to filter.limit() messages, newest first
+     */
+    @SuppressWarnings("unchecked")
+    public List<Message> findPageByPhoneNumber(long phoneNumber, HistoryFilter filter) {
+        Map<String, Object> parameters = new HashMap<>();
+        Query query = getEntityManager().createNativeQuery(phoneHistorySql(phoneNumber, filter, true, parameters), Message.class);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    /**
+     * Stream all messages sent from or to a specific phone number, newest first.
+     * 
+     * Rows are fetched from the database in chunks of fetchSize while the
+     * stream is consumed. filter.limit() is ignored. Must be called inside
+     * a transaction and the stream must be closed.
+     * 
+     * @param phoneNumber the sender's or recipient's phone number (PhoneNumbers.parse)
+     * @param filter filters and keyset position
+     * @param fetchSize number of rows per database round-trip
+     * @return messages involving this phone number, in time order (newest first)
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<Message> streamByPhoneNumber(long phoneNumber, HistoryFilter filter, int fetchSize) {
+        Map<String, Object> parameters = new HashMap<>();
+        Query query = getEntityManager().createNativeQuery(phoneHistorySql(phoneNumber, filter, false, parameters), Message.class)
+            .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(AvailableHints.HINT_READ_ONLY, true);
+        parameters.forEach(query::setParameter);
+        return query.getResultStream();
+    }
+
+    /**
+     * Builds the phone history query.
+     * 
+     * (source = ? OR destination = ?) can't use an index for the ordering,
+     * so the database would collect and sort the number's whole history.
+     * Instead each side is read from its own (number, created_at, id) index
+     * (on the BIGINT columns, see Message) in time order and the two
+     * ordered runs are merged:
+     * 
+     * SELECT * FROM (
+     *   (SELECT ... WHERE source_e164 = ? ... ORDER BY created_at DESC, id DESC LIMIT n)
+     *   UNION ALL
+     *   (SELECT ... WHERE destination_e164 = ? ... ORDER BY created_at DESC, id DESC LIMIT n)
+     * ) h ORDER BY created_at DESC, id DESC LIMIT n
+     * 
+     * UNION ALL is safe: source and destination can never be the same number.
+     */
+    private String phoneHistorySql(long phoneNumber, HistoryFilter filter, boolean limited, Map<String, Object> parameters) {
+        StringBuilder conditions = new StringBuilder();
+        if (filter.since() != null) {
+            conditions.append(" AND created_at >= :since");
+            parameters.put("since", filter.since());
+        }
+        if (filter.until() != null) {
+            conditions.append(" AND created_at < :until");
+            parameters.put("until", filter.until());
+        }
+        if (filter.status() != null) {
+            conditions.append(" AND status = :status");
+            parameters.put("status", filter.status().name());
+        }
+        if (filter.afterCreatedAt() != null) {
+            conditions.append(" AND (created_at < :afterCreatedAt OR (created_at = :afterCreatedAt AND id < :afterId))");
+            parameters.put("afterCreatedAt", filter.afterCreatedAt());
+            parameters.put("afterId", filter.afterId());
+        }
+        parameters.put("number", phoneNumber);
+
+        String order = " ORDER BY created_at DESC, id DESC";
+        String limit = "";
+        if (limited) {
+            limit = " LIMIT :limit";
+            parameters.put("limit", filter.limit());
+        }
+
+        return "SELECT * FROM ("
+            + "(SELECT * FROM messages WHERE source_e164 = :number" + conditions + order + limit + ")"
+            + " UNION ALL "
+            + "(SELECT * FROM messages WHERE destination_e164 = :number" + conditions + order + limit + ")"
+            + ") h" + order + limit;
+    }
+
+    /**
+     * Keyset pagination on (createdAt, id): the page starts right after the
+     * last row of the previous page, so the database never has to skip
+     * rows (unlike OFFSET) and every page costs the same.
+     */
+    private List<Message> findPage(String numberCondition, long number, HistoryFilter filter) {
+        StringBuilder query = new StringBuilder(numberCondition);
+        Parameters parameters = Parameters.with("number", number);
+
+        if (filter.since() != null) {
+            query.append(" and createdAt >= :since");
+            parameters.and("since", filter.since());
+        }
+        if (filter.until() != null) {
+            query.append(" and createdAt < :until");
+            parameters.and("until", filter.until());
+        }
+        if (filter.status() != null) {
+            query.append(" and status = :status");
+            parameters.and("status", filter.status());
+        }
+        if (filter.afterCreatedAt() != null) {
+            query.append(" and (createdAt < :afterCreatedAt or (createdAt = :afterCreatedAt and id < :afterId))");
+            parameters.and("afterCreatedAt", filter.afterCreatedAt()).and("afterId", filter.afterId());
+        }
+        query.append(" order by createdAt desc, id desc");
+
+        return find(query.toString(), parameters)
+            .range(0, filter.limit() - 1)
+            .list();
+    }
+
+    /**
+     * Stream messages for an export, oldest first.
+     * 
+     * Runs on a StatelessSession: rows are turned into detached entities as
+     * the stream is consumed and nothing is kept in a persistence context,
+     * so memory stays flat no matter how many rows are exported. With a
+     * fetch size inside a transaction, PostgreSQL uses a server-side cursor.
+     * Must be called inside a transaction and the stream must be closed.
+     * 
+     * @param from only messages created at or after this time (nullable)
+     * @param to only messages created before this time (nullable)
+     * @param status only messages with this status (nullable)
+     * @param fetchSize number of rows per database round-trip
+     * @return matching messages ordered by (createdAt, id)
+     */
+    public Stream<Message> streamForExport(LocalDateTime from, LocalDateTime to, MessageStatus status, int fetchSize) {
+        StringBuilder query = new StringBuilder("from Message where 1 = 1");
+        if (from != null) {
+            query.append(" and createdAt >= :from");
+        }
+        if (to != null) {
+            query.append(" and createdAt < :to");
+        }
+        if (status != null) {
+            query.append(" and status = :status");
+        }
+        query.append(" order by createdAt, id");
+
+        SelectionQuery<Message> selection = statelessSession.createSelectionQuery(query.toString(), Message.class)
+            .setFetchSize(fetchSize);
+        if (from != null) {
+            selection.setParameter("from", from);
+        }
+        if (to != null) {
+            selection.setParameter("to", to);
+        }
+        if (status != null) {
+            selection.setParameter("status", status);
+        }
+        return selection.getResultStream();
+    }
+
+    /**
+     * Find a message by ID among the messages created at or after a time,
+     * so the partitions of older months aren't read.
+     * @param id the message ID
+     * @param createdSince lower bound of its createdAt (inclusive)
+     * @return the message, empty if there is none with this ID since then
+     */
+    public Optional<Message> findByIdCreatedSince(long id, LocalDateTime createdSince) {
+        return find("id = ?1 and createdAt >= ?2", id, createdSince).firstResultOptional();
+    }
+
+    /**
+     * Find the message stored for an Idempotency-Key (primary key lookup in
+     * idempotency_keys, then the message by id and createdAt, so only its
+     * partition is read).
+     * @param idempotencyKey the key sent by the client
+     * @return the message, empty if the key was never used
+     */
+    public Optional<Message> findByIdempotencyKey(String idempotencyKey) {
+        return getEntityManager()
+            .createQuery("select m from Message m, IdempotencyKey k"
+                + " where k.idempotencyKey = :idempotencyKey and m.id = k.messageId and m.createdAt = k.createdAt", Message.class)
+            .setParameter("idempotencyKey", idempotencyKey)
+            .getResultStream()
+            .findFirst();
+    }
+
+    /**
+     * Read the next page of SCHEDULED and RETRYING messages due before a
+     * time, in due order.
+     * 
+     * Only IDs, due times and createdAt are read, so the ScheduledDispatcher can load
+     * many of them cheaply. Keyset pagination on (sendAt, id), served by
+     * the (status, send_at, id) index.
+     * 
+     * @param until only messages due before this time
+     * @param afterSendAt sendAt of the last row of the previous page (nullable)
+     * @param afterId id of the last row of the previous page (nullable)
+     * @param limit maximum number of rows to return
+     * @return rows of [Long id, LocalDateTime sendAt, LocalDateTime createdAt], ordered by (sendAt, id)
+     */
+    public List<Object[]> findScheduledBefore(LocalDateTime until, LocalDateTime afterSendAt, Long afterId, int limit) {
+        StringBuilder query = new StringBuilder("select id, sendAt, createdAt from Message where status in :statuses and sendAt < :until");
+        if (afterSendAt != null) {
+            query.append(" and (sendAt > :afterSendAt or (sendAt = :afterSendAt and id > :afterId))");
+        }
+        query.append(" order by sendAt, id");
+
+        TypedQuery<Object[]> selection = getEntityManager().createQuery(query.toString(), Object[].class)
+            .setParameter("statuses", WAITING)
+            .setParameter("until", until)
+            .setMaxResults(limit);
+        if (afterSendAt != null) {
+            selection.setParameter("afterSendAt", afterSendAt).setParameter("afterId", afterId);
+        }
+        return selection.getResultList();
+    }
+
+    /**
+     * Lock the messages that are still SCHEDULED or RETRYING (FOR UPDATE).
+     * 
+     * Another instance releasing the same messages has to wait, and sees
+     * them as no longer waiting afterwards, so each message is released
+     * once. Must be called inside a transaction.
+     * 
+     * @param ids the message IDs
+     * @param createdFrom lowest createdAt of the messages (inclusive, nullable: unknown)
+     * @param createdTo highest createdAt of the messages (inclusive, nullable: unknown)
+     * @return the messages that are still SCHEDULED or RETRYING
+     */
+    public List<Message> lockScheduled(Collection<Long> ids, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        PanacheQuery<Message> query = createdFrom == null || createdTo == null
+            ? find("id in ?1 and status in ?2", ids, WAITING)
+            : find("id in ?1 and status in ?2 and createdAt between ?3 and ?4", ids, WAITING, createdFrom, createdTo);
+        return query
+            .withLock(LockModeType.PESSIMISTIC_WRITE)
+            .list();
+    }
+
+    /**
+     * Lowest and highest ID of the FAILED messages created in a time range,
+     * the ID space the re-drive splits into ranges.
+     * 
+     * @param from createdAt lower bound (inclusive)
+     * @param to createdAt upper bound (exclusive)
+     * @return [Long minId, Long maxId], both null if there is no such message
+     */
+    public Object[] findFailedIdRange(LocalDateTime from, LocalDateTime to) {
+        return getEntityManager()
+            .createQuery("select min(id), max(id) from Message where status = :status and createdAt >= :from and createdAt < :to", Object[].class)
+            .setParameter("status", MessageStatus.FAILED)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .getSingleResult();
+    }
+
+    /**
+     * Count the FAILED messages of an ID range created in a time range,
+     * the same rows lockFailed returns (without locking them).
+     * 
+     * @param fromId lowest ID (inclusive)
+     * @param toId highest ID (inclusive)
+     * @param from createdAt lower bound (inclusive)
+     * @param to createdAt upper bound (exclusive)
+     * @return number of FAILED messages in the range
+     */
+    public long countFailed(long fromId, long toId, LocalDateTime from, LocalDateTime to) {
+        return count("id between ?1 and ?2 and status = ?3 and createdAt >= ?4 and createdAt < ?5",
+            fromId, toId, MessageStatus.FAILED, from, to);
+    }
+
+    /**
+     * Lock the FAILED messages of an ID range created in a time range
+     * (FOR UPDATE). A primary key range scan, however large the table.
+     * Must be called inside a transaction.
+     * 
+     * @param fromId lowest ID (inclusive)
+     * @param toId highest ID (inclusive)
+     * @param from createdAt lower bound (inclusive)
+     * @param to createdAt upper bound (exclusive)
+     * @return the FAILED messages of the range
+     */
+    public List<Message> lockFailed(long fromId, long toId, LocalDateTime from, LocalDateTime to) {
+        return find("id between ?1 and ?2 and status = ?3 and createdAt >= ?4 and createdAt < ?5",
+                fromId, toId, MessageStatus.FAILED, from, to)
+            .withLock(LockModeType.PESSIMISTIC_WRITE)
+            .list();
+    }
+
+    /**
+     * Find messages by ID in one query, only reading the partitions of
+     * their createdAt range.
+     * @param ids the message IDs
+     * @param createdFrom lowest createdAt of the messages (inclusive, nullable: unknown)
+     * @param createdTo highest createdAt of the messages (inclusive, nullable: unknown)
+     * @return the messages that exist, in no particular order
+     */
+    public List<Message> listByIds(Collection<Long> ids, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        if (createdFrom == null || createdTo == null) {
+            return list("id in ?1", ids);
+        }
+        return list("id in ?1 and createdAt between ?2 and ?3", ids, createdFrom, createdTo);
     }
 
     /**
@@ -48,12 +410,17 @@ public class MessageRepository implements PanacheRepository<Message>{
     }
 
     /**
-     * Count messages by status
-     * @param status the status to count
-     * @return number of messages with this status  
-    */
-    public long countByStatus(MessageStatus status) {
-        return count("status", status);
+     * Count all messages per (status, error message) in one aggregate query.
+     * 
+     * Scans the whole table, only meant to seed the in-memory statistics
+     * at startup (see MessageStatistics), not to be called per request.
+     * 
+     * @return rows of [MessageStatus status, String errorMessage, Long count]
+     */
+    public List<Object[]> countByStatusAndErrorMessage() {
+        return getEntityManager()
+            .createQuery("select status, errorMessage, count(*) from Message group by status, errorMessage", Object[].class)
+            .getResultList();
     }
 
 }
\ No newline at end of file
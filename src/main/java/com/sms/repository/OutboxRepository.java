@@ -0,0 +1,64 @@
+package com.sms.repository;
+
+import com.sms.model.MessagePriority;
+import com.sms.model.OutboxEvent;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository for OutboxEvent database operations.
+ * 
+ * Only used by the send path (write) and the OutboxRelay (claim + delete).
+ */
+@ApplicationScoped
+public class OutboxRepository implements PanacheRepository<OutboxEvent> {
+
+    /**
+     * Hibernate lock timeout value meaning "SKIP LOCKED".
+     */
+    private static final int SKIP_LOCKED = -2;
+
+    /**
+     * Claim the oldest events for publishing, HIGH priority first.
+     * 
+     * Rows are locked FOR UPDATE SKIP LOCKED until the calling transaction
+     * ends, so several service instances can relay in parallel without
+     * publishing the same event twice.
+     * 
+     * HIGH events are claimed with their own query (priority, id index),
+     * so a backlog of bulk events can't hold them back. The rest of the
+     * batch is filled with the other events.
+     * 
+     * @param limit maximum number of events to claim
+     * @return the claimed events, HIGH first, oldest first within a priority
+     */
+    public List<OutboxEvent> claimBatch(int limit) {
+        List<OutboxEvent> events = new ArrayList<>(claim("priority = ?1 order by id", limit, MessagePriority.HIGH));
+        if (events.size() < limit) {
+            events.addAll(claim("(priority is null or priority <> ?1) order by id", limit - events.size(), MessagePriority.HIGH));
+        }
+        return events;
+    }
+
+    private List<OutboxEvent> claim(String query, int limit, Object... parameters) {
+        return find(query, parameters)
+            .withLock(LockModeType.PESSIMISTIC_WRITE)
+            .withHint("jakarta.persistence.lock.timeout", SKIP_LOCKED)
+            .page(0, limit)
+            .list();
+    }
+
+    /**
+     * Delete published events in one statement.
+     * 
+     * @param ids the event IDs
+     * @return number of deleted rows
+     */
+    public long deleteByIds(List<Long> ids) {
+        return delete("id in ?1", ids);
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.sms.service;
+
+import com.sms.dto.RecoveryJobStatus;
+import com.sms.exception.InvalidMessageException;
+import com.sms.exception.RecoveryJobRunningException;
+import com.sms.model.Message;
+import com.sms.model.OutboxEvent;
+import com.sms.repository.MessageRepository;
+import com.sms.repository.OutboxRepository;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Bulk re-drive of FAILED messages, e.g. after a carrier incident.
+ *
+ * The FAILED messages created in a time range are queued again, like new
+ * messages: status PENDING, a fresh set of attempts and an outbox event
+ * each, so the OutboxRelay publishes them (in their priority lane).
+ *
+ * Scanning: the ID span of the matching rows is read once, then split
+ * into `parallelism` ranges. Each worker walks its range in chunks of
+ * chunk-size IDs, one transaction per chunk (primary key range scan,
+ * lock, requeue, outbox insert), so no query ever sorts or offsets over
+ * the whole table and the chunks of different workers never overlap.
+ * All workers share the job's rate, and a chunk takes its budget (the
+ * count of its FAILED rows) before it is requeued, so the pipeline gets a
+ * steady stream instead of hundreds of thousands of messages at once.
+ *
+ * One re-drive runs at a time. A cancelled or failed job leaves every
+ * committed chunk requeued, running it again picks up the rest.
+ */
+@ApplicationScoped
+public class FailedMessageRedrive {
+
+    private static final Logger LOG = Logger.getLogger(FailedMessageRedrive.class);
+
+    /**
+     * A requeued message and the reason it had failed with.
+     */
+    private record Requeued(long messageId, String errorMessage) {
+    }
+
+    @Inject
+    MessageRepository messageRepository;
+
+    @Inject
+    OutboxRepository outboxRepository;
+
+    @Inject
+    MessageStatistics statistics;
+
+    @Inject
+    @CacheName(SmsService.MESSAGE_CACHE)
+    Cache messageCache;
+
+    /**
+     * Default requeue rate (messages per second) when the request sets none.
+     */
+    @ConfigProperty(name = "sms.redrive.rate", defaultValue = "500")
+    int defaultRate;
+
+    @ConfigProperty(name = "sms.redrive.parallelism", defaultValue = "4")
+    int parallelism;
+
+    /**
+     * Width of the ID range scanned per transaction.
+     */
+    @ConfigProperty(name = "sms.redrive.chunk-size", defaultValue = "1000")
+    int chunkSize;
+
+    private RecoveryJob job;
+
+    /**
+     * Start re-driving the FAILED messages created in [from, to).
+     *
+     * @param from createdAt lower bound (inclusive)
+     * @param to createdAt upper bound (exclusive)
+     * @param rate messages per second, null for the configured default
+     * @return the started job
+     * @throws InvalidMessageException if the time range is empty
+     * @throws RecoveryJobRunningException if a re-drive is already running
+     */
+    public synchronized RecoveryJobStatus start(LocalDateTime from, LocalDateTime to, Integer rate) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidMessageException("Re-drive needs a time range with from before to");
+        }
+        if (job != null && job.isRunning()) {
+            throw new RecoveryJobRunningException("A re-drive is already running");
+        }
+
+        RecoveryJob started = new RecoveryJob("redrive", rate == null ? defaultRate : rate);
+        job = started;
+        LOG.infof("Re-drive of FAILED messages started: from=%s, to=%s, rate=%d/s", from, to, started.status().getRate());
+        Thread.ofPlatform().name("redrive").daemon().start(() -> run(started, from, to));
+        return started.status();
+    }
+
+    /**
+     * @return the running or last re-drive, null if there was none
+     */
+    public synchronized RecoveryJobStatus status() {
+        return job == null ? null : job.status();
+    }
+
+    /**
+     * Stop the running re-drive after the chunks in progress.
+     *
+     * @return the job, null if there was none
+     */
+    public synchronized RecoveryJobStatus cancel() {
+        if (job == null) {
+            return null;
+        }
+        job.cancel();
+        return job.status();
+    }
+
+    private void run(RecoveryJob job, LocalDateTime from, LocalDateTime to) {
+        try {
+            Object[] span = QuarkusTransaction.requiringNew().call(() -> messageRepository.findFailedIdRange(from, to));
+            if (span[0] != null) {
+                scanInParallel(job, (Long) span[0], (Long) span[1], from, to);
+            }
+            job.complete();
+        } catch (Exception e) {
+            LOG.errorf(e, "Re-drive failed");
+            job.fail(e instanceof ExecutionException ? e.getCause() : e);
+        }
+        RecoveryJobStatus status = job.status();
+        LOG.infof("Re-drive finished: state=%s, scanned=%d, requeued=%d", status.getState(), status.getScanned(), status.getRequeued());
+    }
+
+    private void scanInParallel(RecoveryJob job, long minId, long maxId, LocalDateTime from, LocalDateTime to) throws Exception {
+        int workers = Math.max(parallelism, 1);
+        long width = (maxId - minId) / workers + 1;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("redrive-", 0).daemon().factory())) {
+            List<Future<?>> ranges = new ArrayList<>(workers);
+            for (long fromId = minId; fromId <= maxId; fromId += width) {
+                long rangeFrom = fromId;
+                long rangeTo = Math.min(fromId + width - 1, maxId);
+                ranges.add(executor.submit(() -> {
+                    scan(job, rangeFrom, rangeTo, from, to);
+                    return null;
+                }));
+            }
+            for (Future<?> range : ranges) {
+                range.get();
+            }
+        }
+    }
+
+    /**
+     * Walk one ID range chunk by chunk, until it is done or the job stops.
+     */
+    private void scan(RecoveryJob job, long fromId, long toId, LocalDateTime from, LocalDateTime to) throws InterruptedException {
+        for (long chunkFrom = fromId; chunkFrom <= toId && job.isRunning(); chunkFrom += chunkSize) {
+            long start = chunkFrom;
+            long end = Math.min(chunkFrom + chunkSize - 1, toId);
+            try {
+                // The rate budget is taken before the chunk is requeued, so N workers
+                // never put N chunks into the pipeline at once
+                long expected = QuarkusTransaction.requiringNew().call(() -> messageRepository.countFailed(start, end, from, to));
+                job.pace((int) expected);
+                if (!job.isRunning()) {
+                    break;
+                }
+                List<Requeued> requeued = QuarkusTransaction.requiringNew().call(() -> requeue(start, end, from, to));
+                for (Requeued message : requeued) {
+                    statistics.recordRequeued(message.errorMessage());
+                    messageCache.invalidate(message.messageId()).await().indefinitely();
+                }
+                job.recordScanned(end - start + 1);
+                job.recordRequeued(requeued.size());
+                // Messages that failed since the count
+                job.pace((int) (requeued.size() - expected));
+            } catch (RuntimeException e) {
+                // Stops the other workers too, the committed chunks stay requeued
+                job.fail(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Requeue the FAILED messages of one chunk. Called inside its own transaction.
+     */
+    private List<Requeued> requeue(long fromId, long toId, LocalDateTime from, LocalDateTime to) {
+        List<Message> messages = messageRepository.lockFailed(fromId, toId, from, to);
+        List<Requeued> requeued = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            requeued.add(new Requeued(message.id, message.errorMessage));
+            message.requeue();
+        }
+        outboxRepository.persist(messages.stream().map(OutboxEvent::new));
+        return requeued;
+    }
+}
@@ -0,0 +1,329 @@
+package com.sms.service;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Maintenance of the monthly partitions of messages, message_parts and
+ * idempotency_keys.
+ *
+ * Once the tables are range partitioned by month (one-time migration:
+ * db/partition-messages.sql), a background job keeps them in shape:
+ * 1. Creates the partitions of the current month and premake-months
+ *    ahead (messages_p2025_06 holds June 2025), so an insert never
+ *    finds no partition
+ * 2. Retires the messages and message_parts partitions older than
+ *    retention-months: DETACH PARTITION CONCURRENTLY (inserts and reads
+ *    go on), then DROP TABLE, or SET SCHEMA archive-schema to keep the
+ *    rows as plain tables
+ * 3. Retires the idempotency_keys partitions older than the previous
+ *    month the same way (always dropped): keys are only honoured for the
+ *    current and the previous month (see SmsService.sendMessage)
+ *
+ * The parts of a message are partitioned on its created_at, so a month of
+ * messages and its parts go together. Retiring a month costs the same
+ * whatever its size, nothing is ever removed with a bulk DELETE that
+ * bloats the tables and their indexes.
+ *
+ * A detach interrupted halfway (service stopped) is finished with
+ * DETACH PARTITION ... FINALIZE on the next run.
+ *
+ * Every round also records the lowest message ID of each partition.
+ * IDs grow with time, so a lookup by ID alone (GET /api/sms/{id}) gets a
+ * lower bound for createdAt from it (createdSince) and skips the
+ * partitions of older months.
+ *
+ * Does nothing on other databases or while messages isn't partitioned
+ * (logged once), so the job can stay enabled everywhere.
+ */
+@ApplicationScoped
+public class MessagePartitions {
+
+    private static final Logger LOG = Logger.getLogger(MessagePartitions.class);
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    /**
+     * A table range partitioned by month, its partitions named table_pYYYY_MM.
+     */
+    private record PartitionedTable(String name) {
+
+        String partition(YearMonth month) {
+            return prefix() + month.format(SUFFIX);
+        }
+
+        String prefix() {
+            return name + "_p";
+        }
+    }
+
+    private static final PartitionedTable MESSAGES = new PartitionedTable("messages");
+    private static final PartitionedTable PARTS = new PartitionedTable("message_parts");
+    private static final PartitionedTable KEYS = new PartitionedTable("idempotency_keys");
+
+    private static final String IS_PARTITIONED_SQL =
+        "SELECT 1 FROM pg_partitioned_table t JOIN pg_class c ON c.oid = t.partrelid "
+            + "WHERE c.relname = ? AND pg_table_is_visible(c.oid)";
+
+    private static final String PARTITIONS_SQL =
+        "SELECT c.relname, i.inhdetachpending FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+            + "WHERE p.relname = ? AND pg_table_is_visible(p.oid)";
+
+    /**
+     * DDL takes no bind parameters: the statement is built by format(),
+     * which quotes the identifiers (%I) and values (%L) it is given.
+     */
+    private static final String FORMAT_SQL = "SELECT format(?, ?, ?, ?, ?)";
+
+    /**
+     * One partition: its month and whether a detach is pending.
+     */
+    private record Partition(String name, YearMonth month, boolean detachPending) {
+    }
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    PartitionConfig config;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    /**
+     * Lowest message ID of every non-empty partition, with its month.
+     */
+    private volatile NavigableMap<Long, YearMonth> firstIds = new TreeMap<>();
+
+    private volatile boolean running;
+    private Thread worker;
+    private boolean warned;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!config.enabled() || !"postgresql".equals(dbKind)) {
+            LOG.info("Partition maintenance is disabled");
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("partition-maintenance").daemon().start(this::run);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        LOG.infof("Partition maintenance started: premakeMonths=%d, retentionMonths=%d, archiveSchema=%s, interval=%s",
+            config.premakeMonths(), config.retentionMonths(), config.archiveSchema().orElse("-"), config.interval());
+        while (running) {
+            try {
+                maintain(YearMonth.now());
+            } catch (Exception e) {
+                LOG.errorf(e, "Partition maintenance failed, retrying in %s", config.interval());
+            }
+            try {
+                Thread.sleep(config.interval());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * One maintenance round: create the missing partitions, then retire
+     * the expired ones.
+     *
+     * Runs in autocommit mode, DETACH CONCURRENTLY can't run inside a
+     * transaction.
+     *
+     * @param current the current month
+     */
+    void maintain(YearMonth current) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            if (!isPartitioned(connection, MESSAGES)) {
+                if (!warned) {
+                    LOG.warn("messages is not partitioned, see db/partition-messages.sql");
+                    warned = true;
+                }
+                return;
+            }
+
+            List<PartitionedTable> tables = new ArrayList<>(List.of(MESSAGES));
+            for (PartitionedTable table : List.of(PARTS, KEYS)) {
+                if (isPartitioned(connection, table)) {
+                    tables.add(table);
+                }
+            }
+
+            for (PartitionedTable table : tables) {
+                for (int month = 0; month <= config.premakeMonths(); month++) {
+                    create(connection, table, current.plusMonths(month));
+                }
+            }
+
+            if (config.retentionMonths() > 0) {
+                YearMonth oldestKept = current.minusMonths(config.retentionMonths());
+                retireBefore(connection, MESSAGES, oldestKept, config.archiveSchema());
+                if (tables.contains(PARTS)) {
+                    retireBefore(connection, PARTS, oldestKept, config.archiveSchema());
+                }
+            }
+            if (tables.contains(KEYS)) {
+                retireBefore(connection, KEYS, current.minusMonths(1), Optional.empty());
+            }
+
+            firstIds = firstIds(connection);
+        }
+    }
+
+    /**
+     * Lower bound of the createdAt of a message, from its ID: the start of
+     * the latest month whose partition had a lower ID at the last round.
+     *
+     * IDs are taken from the sequence in blocks (sms.id.allocation-size),
+     * so a message written at the very end of a month can have an ID above
+     * the first one of the next month. Callers look the message up by ID
+     * alone when it isn't found within the bound.
+     *
+     * @param id the message ID
+     * @return start of the earliest month the message can be from, empty if unknown
+     */
+    public Optional<LocalDateTime> createdSince(long id) {
+        Map.Entry<Long, YearMonth> partition = firstIds.floorEntry(id);
+        return partition == null ? Optional.empty() : Optional.of(partition.getValue().atDay(1).atStartOfDay());
+    }
+
+    private static boolean isPartitioned(Connection connection, PartitionedTable table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(IS_PARTITIONED_SQL)) {
+            statement.setString(1, table.name());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next();
+            }
+        }
+    }
+
+    /**
+     * @return the partitions named by month (table_pYYYY_MM), others are left alone
+     */
+    private static List<Partition> partitions(Connection connection, PartitionedTable table) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(PARTITIONS_SQL)) {
+            statement.setString(1, table.name());
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    String name = result.getString(1);
+                    if (!name.startsWith(table.prefix())) {
+                        continue;
+                    }
+                    try {
+                        YearMonth month = YearMonth.parse(name.substring(table.prefix().length()), SUFFIX);
+                        partitions.add(new Partition(name, month, result.getBoolean(2)));
+                    } catch (DateTimeParseException e) {
+                        LOG.warnf("Skipping partition with an unexpected name: %s", name);
+                    }
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * min(id) of every messages partition, an index-only lookup on the primary key.
+     */
+    private static NavigableMap<Long, YearMonth> firstIds(Connection connection) throws SQLException {
+        NavigableMap<Long, YearMonth> ids = new TreeMap<>();
+        for (Partition partition : partitions(connection, MESSAGES)) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(format(connection, "SELECT min(id) FROM %I", partition.name()))) {
+                if (result.next() && result.getObject(1) != null) {
+                    ids.put(result.getLong(1), partition.month());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void create(Connection connection, PartitionedTable table, YearMonth month) throws SQLException {
+        execute(connection, format(connection, "CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)",
+            table.partition(month), table.name(), month.atDay(1).toString(), month.plusMonths(1).atDay(1).toString()));
+    }
+
+    private static void retireBefore(Connection connection, PartitionedTable table, YearMonth oldestKept,
+                                     Optional<String> archiveSchema) throws SQLException {
+        for (Partition partition : partitions(connection, table)) {
+            if (partition.month().isBefore(oldestKept)) {
+                retire(connection, table, partition, archiveSchema);
+            }
+        }
+    }
+
+    /**
+     * Detach the partition, then drop it or move it to the archive schema.
+     */
+    private static void retire(Connection connection, PartitionedTable table, Partition partition,
+                               Optional<String> archiveSchema) throws SQLException {
+        String name = partition.name();
+        execute(connection, format(connection, "ALTER TABLE %I DETACH PARTITION %I "
+            + (partition.detachPending() ? "FINALIZE" : "CONCURRENTLY"), table.name(), name));
+
+        if (archiveSchema.isPresent()) {
+            String schema = archiveSchema.get();
+            execute(connection, format(connection, "CREATE SCHEMA IF NOT EXISTS %I", schema));
+            execute(connection, format(connection, "ALTER TABLE %I SET SCHEMA %I", name, schema));
+            LOG.infof("Archived partition %s to schema %s", name, schema);
+        } else {
+            execute(connection, format(connection, "DROP TABLE %I", name));
+            LOG.infof("Dropped partition %s", name);
+        }
+    }
+
+    /**
+     * Builds a statement with PostgreSQL's format(), the arguments are
+     * bound as parameters (up to 4, the unused ones are null).
+     */
+    private static String format(Connection connection, String template, String... arguments) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(FORMAT_SQL)) {
+            statement.setString(1, template);
+            for (int i = 0; i < 4; i++) {
+                statement.setString(i + 2, i < arguments.length ? arguments[i] : null);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getString(1);
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.sms.service;
+
+import com.sms.dto.MinuteStats;
+import com.sms.dto.StatsResponse;
+import com.sms.model.MessageStatus;
+import com.sms.repository.MessageRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Live message statistics, kept in memory.
+ *
+ * Counting rows per request (count(*) over messages) gets slower with
+ * every message stored. Instead, the send path and the status writer
+ * report every change here, and reading the statistics only sums a few
+ * counters, whatever the size of the table.
+ *
+ * Counters:
+ * - per status: messages currently in that status (a delivery moves one
+ *   message from PENDING to DELIVERED/FAILED/RETRYING, a due scheduled
+ *   or retried message from SCHEDULED/RETRYING back to PENDING, a
+ *   re-driven message from FAILED back to PENDING)
+ * - per error reason: FAILED messages, at most max-error-reasons distinct
+ *   reasons, the rest is counted as "Other"
+ * - per minute: ring buffer of the last window-minutes minutes
+ *
+ * All counters are LongAdders (striped), so the many threads of the
+ * delivery pipeline don't contend on a single value.
+ *
+ * At startup the status and error counters are seeded from the database
+ * with one aggregate query. The minute windows only cover live traffic.
+ */
+@ApplicationScoped
+public class MessageStatistics {
+
+    private static final Logger LOG = Logger.getLogger(MessageStatistics.class);
+
+    private static final String OTHER_ERROR = "Other";
+    private static final String UNKNOWN_ERROR = "Unknown";
+
+    /**
+     * Counters of one minute. The slot is reused when the ring wraps
+     * around, minute tells which minute it currently holds.
+     */
+    private static final class MinuteBucket {
+        final AtomicLong minute = new AtomicLong(-1);
+        final LongAdder sent = new LongAdder();
+        final LongAdder delivered = new LongAdder();
+        final LongAdder failed = new LongAdder();
+    }
+
+    @Inject
+    MessageRepository messageRepository;
+
+    @ConfigProperty(name = "sms.stats.window-minutes", defaultValue = "60")
+    int windowMinutes;
+
+    @ConfigProperty(name = "sms.stats.max-error-reasons", defaultValue = "100")
+    int maxErrorReasons;
+
+    private final Map<MessageStatus, LongAdder> byStatus = new EnumMap<>(MessageStatus.class);
+    private final Map<String, LongAdder> byError = new ConcurrentHashMap<>();
+    private MinuteBucket[] minutes;
+
+    @PostConstruct
+    void init() {
+        for (MessageStatus status : MessageStatus.values()) {
+            byStatus.put(status, new LongAdder());
+        }
+        minutes = new MinuteBucket[windowMinutes];
+        for (int i = 0; i < minutes.length; i++) {
+            minutes[i] = new MinuteBucket();
+        }
+    }
+
+    /**
+     * Seed the counters from the database.
+     *
+     * Counts are added, not set, so changes recorded while the query runs
+     * are kept.
+     */
+    void onStart(@Observes StartupEvent event) {
+        List<Object[]> rows = QuarkusTransaction.requiringNew().call(messageRepository::countByStatusAndErrorMessage);
+        long total = 0;
+        for (Object[] row : rows) {
+            MessageStatus status = (MessageStatus) row[0];
+            long count = (Long) row[2];
+            byStatus.get(status).add(count);
+            if (status == MessageStatus.FAILED) {
+                errorCounter((String) row[1]).add(count);
+            }
+            total += count;
+        }
+        LOG.infof("Message statistics loaded: messages=%d", total);
+    }
+
+    /**
+     * New messages were stored with status PENDING.
+     *
+     * @param count number of stored messages
+     */
+    public void recordSent(int count) {
+        byStatus.get(MessageStatus.PENDING).add(count);
+        currentMinute().sent.add(count);
+    }
+
+    /**
+     * New messages were stored with status SCHEDULED.
+     *
+     * @param count number of stored messages
+     */
+    public void recordScheduled(int count) {
+        byStatus.get(MessageStatus.SCHEDULED).add(count);
+        currentMinute().sent.add(count);
+    }
+
+    /**
+     * SCHEDULED or RETRYING messages became due and were queued (now PENDING).
+     *
+     * @param from the status the messages had
+     * @param count number of released messages
+     */
+    public void recordDue(MessageStatus from, int count) {
+        byStatus.get(from).add(-count);
+        byStatus.get(MessageStatus.PENDING).add(count);
+    }
+
+    /**
+     * A PENDING message was delivered.
+     */
+    public void recordDelivered() {
+        byStatus.get(MessageStatus.PENDING).decrement();
+        byStatus.get(MessageStatus.DELIVERED).increment();
+        currentMinute().delivered.increment();
+    }
+
+    /**
+     * A PENDING message failed with a transient error and waits for its
+     * next attempt. Not a final status, so the minute windows don't count it.
+     */
+    public void recordRetrying() {
+        byStatus.get(MessageStatus.PENDING).decrement();
+        byStatus.get(MessageStatus.RETRYING).increment();
+    }
+
+    /**
+     * A PENDING message failed.
+     *
+     * @param errorMessage the failure reason
+     */
+    public void recordFailed(String errorMessage) {
+        byStatus.get(MessageStatus.PENDING).decrement();
+        byStatus.get(MessageStatus.FAILED).increment();
+        errorCounter(errorMessage).increment();
+        currentMinute().failed.increment();
+    }
+
+    /**
+     * A FAILED message was queued again (bulk re-drive).
+     *
+     * @param errorMessage the reason it had failed with
+     */
+    public void recordRequeued(String errorMessage) {
+        byStatus.get(MessageStatus.FAILED).decrement();
+        byStatus.get(MessageStatus.PENDING).increment();
+        errorCounter(errorMessage).decrement();
+    }
+
+    /**
+     * Current statistics. Sums the counters, independent of the number of
+     * stored messages.
+     *
+     * @return totals per status and error reason, plus the minute windows (newest first)
+     */
+    public StatsResponse snapshot() {
+        Map<MessageStatus, Long> statuses = new EnumMap<>(MessageStatus.class);
+        byStatus.forEach((status, counter) -> statuses.put(status, counter.sum()));
+
+        Map<String, Long> errors = new HashMap<>();
+        byError.forEach((reason, counter) -> errors.put(reason, counter.sum()));
+
+        long now = minuteOf(System.currentTimeMillis());
+        List<MinuteStats> window = new ArrayList<>(minutes.length);
+        for (long minute = now; minute > now - minutes.length; minute--) {
+            MinuteBucket bucket = minutes[slot(minute)];
+            LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(minute)), ZoneId.systemDefault());
+            if (bucket.minute.get() == minute) {
+                window.add(new MinuteStats(start, bucket.sent.sum(), bucket.delivered.sum(), bucket.failed.sum()));
+            } else {
+                window.add(new MinuteStats(start, 0, 0, 0));
+            }
+        }
+
+        return new StatsResponse(statuses, errors, window);
+    }
+
+    /**
+     * Counter of an error reason. Unbounded reasons (e.g. carrier texts
+     * with IDs in them) would grow the map forever, so new reasons beyond
+     * max-error-reasons are counted as "Other".
+     */
+    private LongAdder errorCounter(String errorMessage) {
+        String reason = errorMessage == null ? UNKNOWN_ERROR : errorMessage;
+        LongAdder counter = byError.get(reason);
+        if (counter != null) {
+            return counter;
+        }
+        if (byError.size() >= maxErrorReasons) {
+            reason = OTHER_ERROR;
+        }
+        return byError.computeIfAbsent(reason, key -> new LongAdder());
+    }
+
+    /**
+     * Bucket of the current minute, clears the slot when it still holds an
+     * older minute. Increments racing with the reset may be lost, which is
+     * fine for a dashboard.
+     */
+    private MinuteBucket currentMinute() {
+        long minute = minuteOf(System.currentTimeMillis());
+        MinuteBucket bucket = minutes[slot(minute)];
+        long current = bucket.minute.get();
+        while (current < minute) {
+            if (bucket.minute.compareAndSet(current, minute)) {
+                bucket.sent.reset();
+                bucket.delivered.reset();
+                bucket.failed.reset();
+                break;
+            }
+            current = bucket.minute.get();
+        }
+        return bucket;
+    }
+
+    private int slot(long minute) {
+        return (int) (minute % minutes.length);
+    }
+
+    private static long minuteOf(long epochMillis) {
+        return TimeUnit.MILLISECONDS.toMinutes(epochMillis);
+    }
+}
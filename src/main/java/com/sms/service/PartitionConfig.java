@@ -0,0 +1,50 @@
+package com.sms.service;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Configuration of the monthly partitions of messages, message_parts and
+ * idempotency_keys (prefix sms.partitions).
+ *
+ * Only used once the messages table is partitioned (db/partition-messages.sql).
+ * Example, keep 12 months and move older ones to the archive schema:
+ * sms.partitions.retention-months=12
+ * sms.partitions.archive-schema=archive
+ */
+@ConfigMapping(prefix = "sms.partitions")
+public interface PartitionConfig {
+
+    /**
+     * Run the maintenance job (PostgreSQL only).
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * Months created ahead of the current one, so inserts never miss a partition.
+     */
+    @WithDefault("3")
+    int premakeMonths();
+
+    /**
+     * Full months of messages (and their parts) kept before the current
+     * one, 0 keeps everything. Idempotency keys are kept one month.
+     */
+    @WithDefault("0")
+    int retentionMonths();
+
+    /**
+     * Schema expired partitions are moved to (kept as plain tables),
+     * absent: expired partitions are dropped.
+     */
+    Optional<String> archiveSchema();
+
+    /**
+     * How often the job runs.
+     */
+    @WithDefault("6h")
+    Duration interval();
+}
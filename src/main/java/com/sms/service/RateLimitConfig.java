@@ -0,0 +1,57 @@
+package com.sms.service;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+/**
+ * Configuration of the send rate limits (prefix sms.rate-limit).
+ *
+ * A rate of 0 switches that limit off. Example, 5 msg/s per sender with
+ * bursts of 20, and at most 2000 msg/s for the whole service:
+ * sms.rate-limit.sender.rate=5
+ * sms.rate-limit.sender.burst=20
+ * sms.rate-limit.global.rate=2000
+ * sms.rate-limit.global.burst=4000
+ */
+@ConfigMapping(prefix = "sms.rate-limit")
+public interface RateLimitConfig {
+
+    /**
+     * Limit per source number.
+     */
+    Limit sender();
+
+    /**
+     * Limit for all senders together.
+     */
+    Limit global();
+
+    /**
+     * Number of independent maps the sender buckets are spread over
+     * (rounded up to a power of two).
+     */
+    @WithDefault("64")
+    int stripes();
+
+    /**
+     * How often each stripe drops its idle (fully refilled) buckets.
+     */
+    @WithDefault("10s")
+    Duration sweepInterval();
+
+    interface Limit {
+
+        /**
+         * Sustained messages per second, 0 for no limit.
+         */
+        @WithDefault("0")
+        int rate();
+
+        /**
+         * Messages that can be sent back to back after being idle.
+         */
+        @WithDefault("1")
+        int burst();
+    }
+}
@@ -0,0 +1,223 @@
+package com.sms.service;
+
+import com.sms.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jboss.logging.Logger;
+
+/**
+ * Per-sender and global send rate limits (token buckets).
+ *
+ * Every bucket is a single AtomicLong, updated with compare-and-set, so
+ * no request ever waits on a lock. The bucket holds the "theoretical
+ * arrival time" of the next message (GCRA, the token bucket written as
+ * one timestamp): every accepted message pushes it one interval
+ * (1 / rate) further, and a message is rejected when it is more than
+ * burst - 1 intervals ahead of now.
+ *
+ * Sender buckets live in `stripes` ConcurrentHashMaps, keyed by the
+ * numeric source number. A bucket whose timestamp is in the past is
+ * full, exactly like a new one, so it can be dropped without changing
+ * any decision. Each stripe drops those idle buckets every
+ * sweep-interval, on the request that finds the sweep due (no extra
+ * thread). Memory therefore follows the senders active in the last few
+ * seconds, not every sender ever seen.
+ *
+ * Metrics:
+ * - sms.rate.limit.rejected: rejected requests, by limit (sender, global)
+ * - sms.rate.limit.senders: sender buckets currently kept
+ */
+@ApplicationScoped
+public class RateLimiter {
+
+    private static final Logger LOG = Logger.getLogger(RateLimiter.class);
+
+    /**
+     * One token bucket.
+     */
+    private static final class Bucket {
+        private final AtomicLong nextAt;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+
+        Bucket(long intervalNanos, int burst, long now) {
+            this.nextAt = new AtomicLong(now);
+            this.intervalNanos = intervalNanos;
+            this.toleranceNanos = intervalNanos * (Math.max(burst, 1) - 1);
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanos until the next one is available
+         */
+        long tryAcquire(long now) {
+            while (true) {
+                long current = nextAt.get();
+                long wait = current - toleranceNanos - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (nextAt.compareAndSet(current, Math.max(current, now) + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Give back a token taken by tryAcquire.
+         */
+        void refund() {
+            nextAt.addAndGet(-intervalNanos);
+        }
+
+        boolean isIdle(long now) {
+            return nextAt.get() - now <= 0;
+        }
+    }
+
+    /**
+     * Sender buckets of one stripe, and when the stripe is swept next.
+     */
+    private static final class Stripe {
+        final ConcurrentHashMap<Long, Bucket> buckets = new ConcurrentHashMap<>();
+        final AtomicLong nextSweep;
+
+        Stripe(long nextSweep) {
+            this.nextSweep = new AtomicLong(nextSweep);
+        }
+    }
+
+    @Inject
+    RateLimitConfig config;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private Stripe[] stripes;
+    private long senderIntervalNanos;
+    private long sweepIntervalNanos;
+    private Bucket global;
+    private Counter senderRejected;
+    private Counter globalRejected;
+
+    @PostConstruct
+    void init() {
+        long now = System.nanoTime();
+        sweepIntervalNanos = config.sweepInterval().toNanos();
+
+        // Power of two, so the stripe is picked with a mask
+        int count = Integer.highestOneBit(Math.max(config.stripes(), 1) * 2 - 1);
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(now + sweepIntervalNanos);
+        }
+
+        if (config.sender().rate() > 0) {
+            senderIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.sender().rate();
+        }
+        if (config.global().rate() > 0) {
+            global = new Bucket(TimeUnit.SECONDS.toNanos(1) / config.global().rate(), config.global().burst(), now);
+        }
+
+        senderRejected = Counter.builder("sms.rate.limit.rejected")
+            .description("Send requests rejected by a rate limit")
+            .tag("limit", "sender")
+            .register(meterRegistry);
+        globalRejected = Counter.builder("sms.rate.limit.rejected")
+            .description("Send requests rejected by a rate limit")
+            .tag("limit", "global")
+            .register(meterRegistry);
+        Gauge.builder("sms.rate.limit.senders", this, RateLimiter::trackedSenders)
+            .description("Sender buckets currently kept")
+            .register(meterRegistry);
+
+        LOG.infof("Rate limits: sender=%d/s (burst %d), global=%d/s (burst %d)",
+            config.sender().rate(), config.sender().burst(), config.global().rate(), config.global().burst());
+    }
+
+    /**
+     * Take one token for a message of this sender.
+     *
+     * The sender limit is checked first, so a single flooding sender is
+     * turned away before it can use up the global budget. A message the
+     * global limit rejects gives its sender token back: it wasn't sent,
+     * so it doesn't count against the sender.
+     *
+     * @param sourceNumber the numeric source number (PhoneNumbers.parse)
+     * @throws RateLimitExceededException if the sender or the service is over its limit
+     */
+    public void acquire(long sourceNumber) {
+        long now = System.nanoTime();
+
+        Bucket sender = null;
+        if (senderIntervalNanos > 0) {
+            sender = senderBucket(sourceNumber, now);
+            long wait = sender.tryAcquire(now);
+            if (wait > 0) {
+                senderRejected.increment();
+                throw new RateLimitExceededException("Rate limit exceeded for sender", toRetryAfterSeconds(wait));
+            }
+        }
+
+        if (global != null) {
+            long wait = global.tryAcquire(now);
+            if (wait > 0) {
+                if (sender != null) {
+                    sender.refund();
+                }
+                globalRejected.increment();
+                throw new RateLimitExceededException("Service rate limit exceeded", toRetryAfterSeconds(wait));
+            }
+        }
+    }
+
+    private Bucket senderBucket(long sourceNumber, long now) {
+        Stripe stripe = stripes[stripeOf(sourceNumber)];
+        sweepIfDue(stripe, now);
+
+        Bucket bucket = stripe.buckets.get(sourceNumber);
+        if (bucket == null) {
+            bucket = stripe.buckets.computeIfAbsent(sourceNumber,
+                key -> new Bucket(senderIntervalNanos, config.sender().burst(), now));
+        }
+        return bucket;
+    }
+
+    /**
+     * Drops the idle buckets of a stripe, only the request that wins the
+     * CAS on nextSweep does the work. A request that fetched a bucket just
+     * before it was dropped still gets a correct answer, its token is
+     * simply not remembered.
+     */
+    private void sweepIfDue(Stripe stripe, long now) {
+        long due = stripe.nextSweep.get();
+        if (now - due < 0 || !stripe.nextSweep.compareAndSet(due, now + sweepIntervalNanos)) {
+            return;
+        }
+        stripe.buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private int stripeOf(long sourceNumber) {
+        // Spread the low digits (similar numbers) over all stripes
+        long hash = sourceNumber * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (stripes.length - 1);
+    }
+
+    private double trackedSenders() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.buckets.size();
+        }
+        return total;
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.sms.service;
+
+import com.sms.dto.BatchSendResponse;
+import com.sms.dto.HistoryQuery;
+import com.sms.dto.MessagePage;
+import com.sms.dto.SmsRequest;
+import com.sms.dto.SmsResponse;
+import com.sms.dto.StatsResponse;
+import io.smallrye.mutiny.Uni;
+import java.util.List;
+
+/**
+ * Non-blocking variant of SmsService, used by the reactive API mode
+ * (sms.api.mode=reactive, see ReactiveSmsController).
+ * 
+ * Same operations and errors as SmsService (a failed Uni instead of a
+ * thrown exception), nothing returned here may block the event loop.
+ */
+public interface ReactiveSmsService {
+
+    /**
+     * @see SmsService#sendMessage
+     */
+    Uni<SmsResponse> sendMessage(SmsRequest request, String idempotencyKey);
+
+    /**
+     * @see SmsService#sendMessages
+     */
+    Uni<BatchSendResponse> sendMessages(List<SmsRequest> requests);
+
+    /**
+     * Get a message by its ID, what status polls call.
+     * 
+     * @see SmsService#getMessageById
+     */
+    Uni<SmsResponse> getMessageById(Long id);
+
+    /**
+     * @see SmsService#getStats
+     */
+    Uni<StatsResponse> getStats();
+
+    /**
+     * @see SmsService#getMessagesByPhoneNumber
+     */
+    Uni<MessagePage> getMessagesByPhoneNumber(String phoneNumber, HistoryQuery query);
+
+    /**
+     * @see SmsService#getMessagesBySourceNumber
+     */
+    Uni<MessagePage> getMessagesBySourceNumber(String sourceNumber, HistoryQuery query);
+
+    /**
+     * @see SmsService#getMessagesByDestinationNumber
+     */
+    Uni<MessagePage> getMessagesByDestinationNumber(String destinationNumber, HistoryQuery query);
+}
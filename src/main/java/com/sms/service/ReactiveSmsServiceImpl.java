@@ -0,0 +1,185 @@
+package com.sms.service;
+
+import com.sms.dto.BatchSendResponse;
+import com.sms.dto.HistoryQuery;
+import com.sms.dto.MessagePage;
+import com.sms.dto.SmsRequest;
+import com.sms.dto.SmsResponse;
+import com.sms.dto.StatsResponse;
+import com.sms.encoding.SmsEncoding;
+import com.sms.exception.MessageNotFoundException;
+import com.sms.model.Message;
+import com.sms.model.MessagePriority;
+import com.sms.model.MessageStatus;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of ReactiveSmsService (sms.api.mode=reactive).
+ * 
+ * Built for many concurrent status pollers: getMessageById never takes a
+ * thread per request.
+ * - Cache hit (MESSAGE_CACHE, shared with SmsServiceImpl and invalidated
+ *   by the DeliveryStatusWriter): answered right on the event loop
+ * - Cache miss: one query on the Vert.x PostgreSQL client (non-blocking
+ *   I/O), pruned to the partitions from the ID's month on like the
+ *   blocking lookup, the result is cached like @CacheResult does
+ * - Stats: in-memory counters, answered on the event loop
+ * 
+ * Sends and history pages delegate to the blocking SmsServiceImpl on a
+ * worker thread. The send path depends on the JTA transaction (message,
+ * parts, idempotency key and outbox row commit together) and on JDBC
+ * batching, and Hibernate Reactive can't share the persistence unit with
+ * Hibernate ORM, so these keep one code path for both modes.
+ * 
+ * Without a reactive client (quarkus.datasource.reactive=false, the default,
+ * and tests on H2) cache misses also go to a worker thread, so the same tests
+ * run in both modes. The row mapping is tested on its own (ReactiveRowMappingTest).
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "sms.api.mode", stringValue = "reactive")
+public class ReactiveSmsServiceImpl implements ReactiveSmsService {
+
+    private static final String SELECT_BY_ID_SQL =
+        "SELECT id, source_number, destination_number, message_content, content_encoding, content_packed, status, "
+            + "priority, error_message, segments, created_at, updated_at, send_at FROM messages WHERE id = $1";
+
+    private static final String SELECT_BY_ID_CREATED_SINCE_SQL = SELECT_BY_ID_SQL + " AND created_at >= $2";
+
+    private final SmsService smsService;
+    private final MessageStatistics statistics;
+    private final MessagePartitions partitions;
+    private final Cache messageCache;
+    private final Pool pool;
+
+    @Inject
+    public ReactiveSmsServiceImpl(SmsService smsService,
+                                  MessageStatistics statistics,
+                                  MessagePartitions partitions,
+                                  @CacheName(SmsService.MESSAGE_CACHE) Cache messageCache,
+                                  Instance<Pool> pool) {
+        this.smsService = smsService;
+        this.statistics = statistics;
+        this.partitions = partitions;
+        this.messageCache = messageCache;
+        this.pool = pool.isResolvable() ? pool.get() : null;
+    }
+
+    @Override
+    public Uni<SmsResponse> sendMessage(SmsRequest request, String idempotencyKey) {
+        return blocking(() -> smsService.sendMessage(request, idempotencyKey));
+    }
+
+    @Override
+    public Uni<BatchSendResponse> sendMessages(List<SmsRequest> requests) {
+        return blocking(() -> smsService.sendMessages(requests));
+    }
+
+    @Override
+    public Uni<SmsResponse> getMessageById(Long id) {
+        CompletableFuture<SmsResponse> cached = messageCache.as(CaffeineCache.class).getIfPresent(id);
+        if (cached != null) {
+            return Uni.createFrom().completionStage(cached);
+        }
+        if (pool == null) {
+            return blocking(() -> smsService.getMessageById(id));
+        }
+        return messageCache.getAsync(id, key -> findById(id));
+    }
+
+    @Override
+    public Uni<StatsResponse> getStats() {
+        return Uni.createFrom().item(statistics::snapshot);
+    }
+
+    @Override
+    public Uni<MessagePage> getMessagesByPhoneNumber(String phoneNumber, HistoryQuery query) {
+        return blocking(() -> smsService.getMessagesByPhoneNumber(phoneNumber, query));
+    }
+
+    @Override
+    public Uni<MessagePage> getMessagesBySourceNumber(String sourceNumber, HistoryQuery query) {
+        return blocking(() -> smsService.getMessagesBySourceNumber(sourceNumber, query));
+    }
+
+    @Override
+    public Uni<MessagePage> getMessagesByDestinationNumber(String destinationNumber, HistoryQuery query) {
+        return blocking(() -> smsService.getMessagesByDestinationNumber(destinationNumber, query));
+    }
+
+    /**
+     * Like SmsServiceImpl.getMessageById: first from the month the ID
+     * belongs to on, then in all partitions.
+     */
+    private Uni<SmsResponse> findById(Long id) {
+        Optional<LocalDateTime> createdSince = partitions.createdSince(id);
+        Uni<Message> pruned = createdSince.isEmpty()
+            ? Uni.createFrom().nullItem()
+            : select(SELECT_BY_ID_CREATED_SINCE_SQL, Tuple.of(id, createdSince.get()));
+        return pruned
+            .onItem().ifNull().switchTo(() -> select(SELECT_BY_ID_SQL, Tuple.of(id)))
+            .onItem().ifNull().failWith(() -> new MessageNotFoundException(id))
+            .map(SmsResponse::fromEntity);
+    }
+
+    /**
+     * @return the message of the first row, null if there is none
+     */
+    private Uni<Message> select(String sql, Tuple parameters) {
+        return pool.preparedQuery(sql)
+            .execute(parameters)
+            .map(rows -> {
+                RowIterator<Row> iterator = rows.iterator();
+                return iterator.hasNext() ? toMessage(iterator.next()) : null;
+            });
+    }
+
+    /**
+     * The columns SmsResponse.fromEntity reads, packed content included
+     * (decoded by Message.getContent).
+     */
+    static Message toMessage(Row row) {
+        Message message = new Message();
+        message.id = row.getLong("id");
+        message.sourceNumber = row.getString("source_number");
+        message.destinationNumber = row.getString("destination_number");
+        message.contentText = row.getString("message_content");
+        String encoding = row.getString("content_encoding");
+        message.contentEncoding = encoding == null ? null : SmsEncoding.valueOf(encoding);
+        Buffer packed = row.getBuffer("content_packed");
+        message.contentPacked = packed == null ? null : packed.getBytes();
+        message.status = MessageStatus.valueOf(row.getString("status"));
+        String priority = row.getString("priority");
+        message.priority = priority == null ? null : MessagePriority.valueOf(priority);
+        message.errorMessage = row.getString("error_message");
+        message.segments = row.getInteger("segments");
+        message.createdAt = row.getLocalDateTime("created_at");
+        message.updatedAt = row.getLocalDateTime("updated_at");
+        message.sendAt = row.getLocalDateTime("send_at");
+        return message;
+    }
+
+    /**
+     * Runs a blocking SmsService call on a worker thread, off the event loop.
+     */
+    private static <T> Uni<T> blocking(Supplier<T> call) {
+        return Uni.createFrom().item(call).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+}
@@ -0,0 +1,104 @@
+package com.sms.service;
+
+import com.sms.dto.RecoveryJobStatus;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress and pacing of one bulk recovery job (DLQ replay, FAILED
+ * re-drive).
+ *
+ * The rate is shared by all workers of the job: pace() reserves the next
+ * free send slots on one AtomicLong (like a RateLimiter bucket), so any
+ * number of parallel workers together stay at the configured rate and
+ * the pipeline isn't flooded after an incident.
+ *
+ * Workers stop as soon as the job is no longer RUNNING (cancelled, or
+ * another worker failed).
+ */
+public class RecoveryJob {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    private final String type;
+    private final int rate;
+    private final long intervalNanos;
+    private final AtomicLong nextAt = new AtomicLong(System.nanoTime());
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder requeued = new LongAdder();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+    private volatile State state = State.RUNNING;
+    private volatile String error;
+
+    /**
+     * @param type what the job does, e.g. "dlq-replay"
+     * @param rate maximum messages requeued per second, 0 for no limit
+     */
+    public RecoveryJob(String type, int rate) {
+        this.type = type;
+        this.rate = Math.max(rate, 0);
+        this.intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+    }
+
+    /**
+     * Wait until the next `count` messages may be requeued.
+     *
+     * @param count number of messages about to be requeued
+     * @throws InterruptedException if the worker is interrupted while waiting
+     */
+    public void pace(int count) throws InterruptedException {
+        if (intervalNanos == 0 || count <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long slot = Math.max(nextAt.getAndUpdate(next -> Math.max(next, now) + count * intervalNanos), now);
+        TimeUnit.NANOSECONDS.sleep(slot - now);
+    }
+
+    public void recordScanned(long count) {
+        scanned.add(count);
+    }
+
+    public void recordRequeued(long count) {
+        requeued.add(count);
+    }
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    /**
+     * Ask the workers to stop, messages already requeued stay requeued.
+     */
+    public synchronized void cancel() {
+        finish(State.CANCELLED, null);
+    }
+
+    public synchronized void complete() {
+        finish(State.COMPLETED, null);
+    }
+
+    public synchronized void fail(Throwable failure) {
+        finish(State.FAILED, String.valueOf(failure.getMessage()));
+    }
+
+    private void finish(State finalState, String reason) {
+        if (state == State.RUNNING) {
+            state = finalState;
+            error = reason;
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    public RecoveryJobStatus status() {
+        return new RecoveryJobStatus(type, state.name(), scanned.sum(), requeued.sum(), rate, startedAt, finishedAt, error);
+    }
+}
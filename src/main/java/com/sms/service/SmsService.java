@@ -1,7 +1,15 @@
 package com.sms.service;
 
+import com.sms.dto.BatchSendResponse;
+import com.sms.dto.HistoryQuery;
+import com.sms.dto.MessagePage;
 import com.sms.dto.SmsRequest;
 import com.sms.dto.SmsResponse;
+import com.sms.dto.StatsResponse;
+import com.sms.model.MessageStatus;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -17,24 +25,66 @@ import java.util.List;
  */
 
 public interface SmsService {
+
+    /**
+     * Name of the cache holding SmsResponse by message ID (see getMessageById).
+     */
+    String MESSAGE_CACHE = "messages";
+
+    /**
+     * Name of the cache holding the SmsResponse by Idempotency-Key (see sendMessage).
+     */
+    String IDEMPOTENCY_CACHE = "idempotency-keys";
+
     /**
      * Send a new SMS message
      * 
      * This method:
      * 1. Validates the request
      * 2. Creates and persists a Message entity
-     * 3. Queues the message for astync processing (RabbitMQ)
+     * 3. Queues the message for astync processing (outbox row, relayed to RabbitMQ)
      * 4. Returns the created message details
      * 
+     * A request with a sendAt in the future is stored as SCHEDULED and
+     * only queued when it becomes due (see ScheduledDispatcher).
+     * 
+     * With an idempotency key, a request that repeats an accepted one
+     * stores and queues nothing and gets the original response back.
+     * Recent keys are answered from memory (IDEMPOTENCY_CACHE), older ones
+     * are caught by the idempotency_keys table. Once it is partitioned,
+     * keys are kept for the current and the previous month.
+     * 
      * @param request The SMS request containing source, destination, and content
-     * @return SmsResponse with message details and PENDING status
-     * @throws com.sms.exception.InvalidMessageException if business validation fails
+     * @param idempotencyKey the client's Idempotency-Key (nullable)
+     * @return SmsResponse with message details and PENDING (or SCHEDULED) status
+     * @throws com.sms.exception.InvalidMessageException if business validation fails, or the key was used for a different message
+     * @throws com.sms.exception.RateLimitExceededException if the sender or the service is over its rate limit
      */
-    SmsResponse sendMessage(SmsRequest request);
+    SmsResponse sendMessage(SmsRequest request, String idempotencyKey);
+
+    /**
+     * Send many SMS messages in one call.
+     * 
+     * Each item is validated on its own, so a few invalid items don't
+     * fail the whole batch. Every valid item takes a token from the rate
+     * limits of its sender, items over the limit are rejected like invalid
+     * ones. The others are persisted in chunks (one
+     * transaction and one JDBC batch per chunk) together with their
+     * outbox events.
+     * 
+     * @param requests the SMS requests, in client order
+     * @return one result per request item plus accepted/rejected counts
+     * @throws com.sms.exception.InvalidMessageException if the batch is empty or too large
+     */
+    BatchSendResponse sendMessages(List<SmsRequest> requests);
 
     /**
      * Get a message by its ID.
      * 
+     * Responses are cached (MESSAGE_CACHE), so clients polling for the
+     * delivery status don't hit the database on every request. The
+     * DeliveryStatusWriter invalidates the entry when the status changes.
+     * 
      * @param id the message ID
      * @return SmsResponse with message details
      * @throws com.sms.exception.MessageNotFoundException if message not found
@@ -42,28 +92,58 @@ public interface SmsService {
     SmsResponse getMessageById(Long id);
 
     /**
-     * Get all messages for a specific phone number.
+     * Get live delivery statistics.
+     * 
+     * Served from in-memory counters (MessageStatistics), so the cost
+     * doesn't grow with the number of stored messages.
+     * 
+     * @return totals per status and error reason, plus per minute counts
+     */
+    StatsResponse getStats();
+
+    /**
+     * Get one page of messages for a specific phone number.
      * 
      * Returns messages where the phone number is either sender or recipient.
      * 
      * @param phoneNumber the phone number to search for
-     * @return list of messages involving this phone number
+     * @param query page size, cursor and filters
+     * @return page of messages involving this phone number, newest first
+     * @throws com.sms.exception.InvalidMessageException if the phone number, cursor or page size is invalid
      */
-    List<SmsResponse> getMessagesByPhoneNumber(String phoneNumber);
+    MessagePage getMessagesByPhoneNumber(String phoneNumber, HistoryQuery query);
 
     /**
-     * Get all messages sent from a specific number.
+     * Get one page of messages sent from a specific number.
      * 
      * @param sourceNumber the sender's phone number
-     * @return list of messages from this source
+     * @param query page size, cursor and filters
+     * @return page of messages from this source, newest first
+     * @throws com.sms.exception.InvalidMessageException if the phone number, cursor or page size is invalid
      */
-    List<SmsResponse> getMessagesBySourceNumber(String sourceNumber);
+    MessagePage getMessagesBySourceNumber(String sourceNumber, HistoryQuery query);
 
     /**
-     * Get all messages sent to a specific number.
+     * Get one page of messages sent to a specific number.
      * 
      * @param destinationNumber the recipient's phone number
-     * @return list of messages to this destination
+     * @param query page size, cursor and filters
+     * @return page of messages to this destination, newest first
+     * @throws com.sms.exception.InvalidMessageException if the phone number, cursor or page size is invalid
+     */
+    MessagePage getMessagesByDestinationNumber(String destinationNumber, HistoryQuery query);
+
+    /**
+     * Export messages as newline-delimited JSON (one SmsResponse per line).
+     * 
+     * Rows are streamed from a database cursor straight to the output,
+     * nothing is collected in memory, so exports of any size are safe.
+     * 
+     * @param from only messages created at or after this time (nullable)
+     * @param to only messages created before this time (nullable)
+     * @param status only messages with this status (nullable)
+     * @param output where the NDJSON lines are written to
+     * @throws IOException if writing to the output fails
      */
-    List<SmsResponse> getMessagesByDestinationNumber(String destinationNumber);
-}   
\ No newline at end of file
+    void exportMessages(LocalDateTime from, LocalDateTime to, MessageStatus status, OutputStream output) throws IOException;
+}
@@ -1,17 +1,62 @@
 package com.sms.service;
 
+import com.sms.dto.BatchItemResult;
+import com.sms.dto.BatchSendResponse;
+import com.sms.dto.HistoryQuery;
+import com.sms.dto.MessagePage;
 import com.sms.dto.SmsRequest;
 import com.sms.dto.SmsResponse;
+import com.sms.dto.StatsResponse;
 import com.sms.exception.InvalidMessageException;
 import com.sms.exception.MessageNotFoundException;
-import com.sms.messaging.SmsMessageProducer;
+import com.sms.exception.RateLimitExceededException;
+import com.sms.messaging.ScheduledDispatcher;
+import com.sms.model.IdempotencyKey;
 import com.sms.model.Message;
+import com.sms.model.MessagePart;
+import com.sms.model.MessagePriority;
+import com.sms.model.MessageStatus;
+import com.sms.model.OutboxEvent;
+import com.sms.repository.HistoryFilter;
+import com.sms.repository.IdempotencyKeyRepository;
+import com.sms.repository.MessagePartRepository;
 import com.sms.repository.MessageRepository;
+import com.sms.repository.OutboxRepository;
+import com.sms.validation.PhoneNumbers;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CacheResult;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.exception.ConstraintViolationException;
 
 /**
  * Implementation of SmsService.
@@ -25,9 +70,54 @@ import java.util.stream.Collectors;
 @ApplicationScoped
 public class SmsServiceImpl implements SmsService {
 
+    /**
+     * Separates createdAt and id in the (base64 encoded) history cursor.
+     */
+    private static final String CURSOR_SEPARATOR = "_";
+
+    /**
+     * Length of the idempotency_key column.
+     */
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+
     private final MessageRepository messageRepository;
-    private final SmsMessageProducer messageProducer;
+    private final MessagePartRepository partRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final OutboxRepository outboxRepository;
+    private final MessageStatistics statistics;
+    private final MessagePartitions partitions;
+    private final RateLimiter rateLimiter;
+    private final ScheduledDispatcher scheduledDispatcher;
+    private final TransactionSynchronizationRegistry transactionRegistry;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final Cache idempotencyCache;
+
+    /**
+     * Maximum number of items accepted by a single batch request.
+     */
+    private final int batchMaxSize;
+
+    /**
+     * Number of messages persisted per transaction / JDBC batch.
+     */
+    private final int batchChunkSize;
+
+    /**
+     * Page size of the history endpoints when no limit is given, and the cap for limit.
+     */
+    private final int historyDefaultPageSize;
+    private final int historyMaxPageSize;
 
+    /**
+     * Rows fetched per database round-trip by the export cursor.
+     */
+    private final int exportFetchSize;
+
+    /**
+     * How far ahead a message can be scheduled (sendAt).
+     */
+    private final Duration scheduleMaxDelay;
 
     /**
      * Constructor injection (preferred over field injection).
@@ -38,79 +128,485 @@ public class SmsServiceImpl implements SmsService {
      * - Ensures object is fully initialized
      */
     @Inject
-    public SmsServiceImpl(MessageRepository messageRepository, SmsMessageProducer messageProducer) {
+    public SmsServiceImpl(MessageRepository messageRepository,
+                          MessagePartRepository partRepository,
+                          IdempotencyKeyRepository idempotencyKeyRepository,
+                          OutboxRepository outboxRepository,
+                          MessageStatistics statistics,
+                          MessagePartitions partitions,
+                          RateLimiter rateLimiter,
+                          ScheduledDispatcher scheduledDispatcher,
+                          TransactionSynchronizationRegistry transactionRegistry,
+                          Validator validator,
+                          ObjectMapper objectMapper,
+                          @CacheName(IDEMPOTENCY_CACHE) Cache idempotencyCache,
+                          @ConfigProperty(name = "sms.batch.max-size", defaultValue = "10000") int batchMaxSize,
+                          @ConfigProperty(name = "sms.batch.chunk-size", defaultValue = "500") int batchChunkSize,
+                          @ConfigProperty(name = "sms.history.default-page-size", defaultValue = "50") int historyDefaultPageSize,
+                          @ConfigProperty(name = "sms.history.max-page-size", defaultValue = "500") int historyMaxPageSize,
+                          @ConfigProperty(name = "sms.export.fetch-size", defaultValue = "1000") int exportFetchSize,
+                          @ConfigProperty(name = "sms.schedule.max-delay", defaultValue = "365d") Duration scheduleMaxDelay) {
         this.messageRepository = messageRepository;
-        this.messageProducer = messageProducer;
+        this.partRepository = partRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.outboxRepository = outboxRepository;
+        this.statistics = statistics;
+        this.partitions = partitions;
+        this.rateLimiter = rateLimiter;
+        this.scheduledDispatcher = scheduledDispatcher;
+        this.transactionRegistry = transactionRegistry;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.idempotencyCache = idempotencyCache;
+        this.batchMaxSize = batchMaxSize;
+        this.batchChunkSize = batchChunkSize;
+        this.historyDefaultPageSize = historyDefaultPageSize;
+        this.historyMaxPageSize = historyMaxPageSize;
+        this.exportFetchSize = exportFetchSize;
+        this.scheduleMaxDelay = scheduleMaxDelay;
     }
 
+    /**
+     * Not @Transactional: with an idempotency key, a duplicate insert fails
+     * the whole transaction at commit, and the original message is then
+     * read in a new one.
+     */
     @Override
-    @Transactional
-    public SmsResponse sendMessage(SmsRequest request) {
+    public SmsResponse sendMessage(SmsRequest request, String idempotencyKey) {
 
         // Business rule validation
         validateBusinessRules(request);
 
-        // 1. Create Message entity from request
-        Message message = new Message(
-            request.getSourceNumber(),
-            request.getDestinationNumber(),
-            request.getContent()
-        );
+        if (idempotencyKey == null) {
+            // Rate limits, before anything is stored or queued
+            rateLimiter.acquire(PhoneNumbers.parse(request.getSourceNumber()));
+            return QuarkusTransaction.requiringNew().call(() -> persistMessage(request, null));
+        }
 
-        // 2. Persist to database
-        messageRepository.persist(message);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IDEMPOTENCY_KEY_MAX_LENGTH) {
+            throw new InvalidMessageException("Idempotency-Key must be 1 to " + IDEMPOTENCY_KEY_MAX_LENGTH + " characters");
+        }
 
-        // 3. Send to RabbitMQ for async processing
-        messageProducer.sendToQueue(message.id);
+        // Retries within the cache TTL never reach the database, the rate limiter or the outbox
+        CaffeineCache idempotencyIndex = idempotencyCache.as(CaffeineCache.class);
+        CompletableFuture<SmsResponse> cached = idempotencyIndex.getIfPresent(idempotencyKey);
+        SmsResponse original = cached == null ? null : cached.join();
 
-        // 4. Return response
-        return SmsResponse.fromEntity(message);
+        if (original == null) {
+            rateLimiter.acquire(PhoneNumbers.parse(request.getSourceNumber()));
+            original = persistOnce(request, idempotencyKey);
+            idempotencyIndex.put(idempotencyKey, CompletableFuture.completedFuture(original));
+        }
+
+        if (!isSameMessage(original, request)) {
+            throw new InvalidMessageException("Idempotency-Key was already used for a different message");
+        }
+        return original;
+    }
+
+    /**
+     * Not @Transactional on purpose: every chunk runs in its own short
+     * transaction, so a batch of thousands never holds one connection
+     * (and one huge persistence context) for the whole request.
+     */
+    @Override
+    public BatchSendResponse sendMessages(List<SmsRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidMessageException("Batch must contain at least one message");
+        }
+        if (requests.size() > batchMaxSize) {
+            throw new InvalidMessageException("Batch cannot contain more than " + batchMaxSize + " messages");
+        }
+
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+
+        // 1. Validate every item and take its rate limit token, rejected items
+        //    are reported but don't stop the batch
+        List<Integer> validIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = validateItem(requests.get(i));
+            if (!errors.isEmpty()) {
+                results[i] = BatchItemResult.rejected(i, errors);
+                continue;
+            }
+            try {
+                rateLimiter.acquire(PhoneNumbers.parse(requests.get(i).getSourceNumber()));
+                validIndexes.add(i);
+            } catch (RateLimitExceededException e) {
+                results[i] = BatchItemResult.rejected(i, List.of(e.getMessage()));
+            }
+        }
+
+        // 2. Persist and queue valid items chunk by chunk
+        for (int from = 0; from < validIndexes.size(); from += batchChunkSize) {
+            List<Integer> chunk = validIndexes.subList(from, Math.min(from + batchChunkSize, validIndexes.size()));
+
+            List<Message> messages = QuarkusTransaction.requiringNew().call(() -> persistChunk(requests, chunk));
+
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = chunk.get(i);
+                results[index] = BatchItemResult.accepted(index, SmsResponse.fromEntity(messages.get(i)));
+            }
+        }
+
+        int accepted = validIndexes.size();
+        return new BatchSendResponse(accepted, requests.size() - accepted, Arrays.asList(results));
     }
 
+    /**
+     * Read-through: only a cache miss reaches the database. Not found isn't
+     * cached (exceptions never are), so a 404 is checked again next time.
+     * 
+     * The miss only reads the partitions from the month the ID belongs to
+     * on (MessagePartitions.createdSince), all of them if it isn't there.
+     */
     @Override
+    @CacheResult(cacheName = MESSAGE_CACHE)
     public SmsResponse getMessageById(Long id) {
-        return messageRepository.findByIdOptional(id)
+        return partitions.createdSince(id)
+            .flatMap(createdSince -> messageRepository.findByIdCreatedSince(id, createdSince))
+            .or(() -> messageRepository.findByIdOptional(id))
             .map(SmsResponse::fromEntity)
             .orElseThrow(() -> new MessageNotFoundException(id));
     }
 
     @Override
-    public List<SmsResponse> getMessagesByPhoneNumber(String phoneNumber) {
-        // Get messages where phone is sender OR recipient
-        List<Message> sentMessages = messageRepository.findBySourceNumber(phoneNumber);
-        List<Message> receivedMessages = messageRepository.findByDestinationNumber(phoneNumber);
-
-        // Combine and convert to responses
-        sentMessages.addAll(receivedMessages);
-        
-        return sentMessages.stream()
-            .map(SmsResponse::fromEntity)
-            .collect(Collectors.toList());
+    public StatsResponse getStats() {
+        return statistics.snapshot();
     }
 
     @Override
-    public List<SmsResponse> getMessagesBySourceNumber(String sourceNumber) {
-        return messageRepository.findBySourceNumber(sourceNumber)
-            .stream()
-            .map(SmsResponse::fromEntity)
-            .collect(Collectors.toList());
+    public MessagePage getMessagesByPhoneNumber(String phoneNumber, HistoryQuery query) {
+        HistoryFilter filter = toFilter(query);
+        return toPage(messageRepository.findPageByPhoneNumber(parsePhoneNumber(phoneNumber), filter), filter);
     }
 
     @Override
-    public List<SmsResponse> getMessagesByDestinationNumber(String destinationNumber) {
-        return messageRepository.findByDestinationNumber(destinationNumber)
-            .stream()
-            .map(SmsResponse::fromEntity)
-            .collect(Collectors.toList());
+    public MessagePage getMessagesBySourceNumber(String sourceNumber, HistoryQuery query) {
+        HistoryFilter filter = toFilter(query);
+        return toPage(messageRepository.findPageBySourceNumber(parsePhoneNumber(sourceNumber), filter), filter);
+    }
+
+    @Override
+    public MessagePage getMessagesByDestinationNumber(String destinationNumber, HistoryQuery query) {
+        HistoryFilter filter = toFilter(query);
+        return toPage(messageRepository.findPageByDestinationNumber(parsePhoneNumber(destinationNumber), filter), filter);
+    }
+
+    /**
+     * Writes every row as soon as it is read from the cursor, so memory use
+     * doesn't depend on the size of the export. The transaction keeps the
+     * cursor open and gets its own (longer) timeout.
+     */
+    @Override
+    @Transactional
+    @TransactionConfiguration(timeoutFromConfigProperty = "sms.export.transaction-timeout")
+    public void exportMessages(LocalDateTime from, LocalDateTime to, MessageStatus status, OutputStream output) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(SmsResponse.class);
+
+        try (Stream<Message> messages = messageRepository.streamForExport(from, to, status, exportFetchSize);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            // One object per line: no separator between root values, the container closes the stream
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<Message> rows = messages.iterator();
+            while (rows.hasNext()) {
+                writer.writeValue(generator, SmsResponse.fromEntity(rows.next()));
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * Phone numbers in paths are looked up in canonical form, so
+     * "+15551234567" and "15551234567" find the same history.
+     */
+    private long parsePhoneNumber(String phoneNumber) {
+        long number = PhoneNumbers.parse(phoneNumber);
+        if (number == PhoneNumbers.INVALID) {
+            throw new InvalidMessageException("Invalid phone number format. Use international format (e.g., +306912345678)");
+        }
+        return number;
+    }
+
+    /**
+     * Converts the query parameters into a repository filter.
+     * 
+     * One row more than the page size is requested, so we know whether a
+     * next page exists without a count query.
+     */
+    private HistoryFilter toFilter(HistoryQuery query) {
+        int limit = query.getLimit() == null ? historyDefaultPageSize : query.getLimit();
+        if (limit < 1) {
+            throw new InvalidMessageException("Limit must be at least 1");
+        }
+        limit = Math.min(limit, historyMaxPageSize);
+
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (query.getCursor() != null && !query.getCursor().isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(query.getCursor()), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf(CURSOR_SEPARATOR);
+                afterCreatedAt = LocalDateTime.parse(decoded.substring(0, separator));
+                afterId = Long.parseLong(decoded.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new InvalidMessageException("Invalid cursor");
+            }
+        }
+
+        return new HistoryFilter(query.getSince(), query.getUntil(), query.getStatus(), afterCreatedAt, afterId, limit + 1);
+    }
+
+    /**
+     * Builds the page and the cursor of the next page (the last returned row).
+     */
+    private MessagePage toPage(List<Message> messages, HistoryFilter filter) {
+        int pageSize = filter.limit() - 1;
+        boolean hasNext = messages.size() > pageSize;
+        List<Message> page = hasNext ? messages.subList(0, pageSize) : messages;
+
+        String next = null;
+        if (hasNext) {
+            Message last = page.get(page.size() - 1);
+            String position = last.createdAt + CURSOR_SEPARATOR + last.id;
+            next = Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return new MessagePage(
+            page.stream()
+                .map(SmsResponse::fromEntity)
+                .collect(Collectors.toList()),
+            next
+        );
+    }
+
+    /**
+     * Persists one message and its outbox event.
+     * Called inside its own transaction.
+     */
+    private SmsResponse persistMessage(SmsRequest request, String idempotencyKey) {
+        // 1. Create Message entity from request
+        Message message = newMessage(request, LocalDateTime.now());
+        message.idempotencyKey = idempotencyKey;
+
+        // 2. Persist to database (with its parts if it's a long message, and its key)
+        messageRepository.persist(message);
+        persistParts(List.of(message));
+        if (idempotencyKey != null) {
+            idempotencyKeyRepository.persist(new IdempotencyKey(idempotencyKey, message));
+        }
+
+        // 3. Queue for async processing, or hold back until sendAt
+        queue(List.of(message));
+
+        // 4. Return response
+        return SmsResponse.fromEntity(message);
+    }
+
+    /**
+     * Stores the message unless its key is already taken: an older retry
+     * (no longer cached) is found by the lookup, a concurrent one makes the
+     * insert fail on the idempotency_keys primary key, then the stored
+     * message is returned. The lookup also catches a retry from the
+     * previous month, which the key_month partition key doesn't.
+     */
+    private SmsResponse persistOnce(SmsRequest request, String idempotencyKey) {
+        try {
+            return QuarkusTransaction.requiringNew().call(() -> messageRepository.findByIdempotencyKey(idempotencyKey)
+                .map(SmsResponse::fromEntity)
+                .orElseGet(() -> persistMessage(request, idempotencyKey)));
+        } catch (RuntimeException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            return QuarkusTransaction.requiringNew().call(() -> messageRepository.findByIdempotencyKey(idempotencyKey)
+                .map(SmsResponse::fromEntity)
+                .orElseThrow(() -> e));
+        }
+    }
+
+    private static boolean isConstraintViolation(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A key belongs to one message: a request with the same key but another
+     * sender, recipient, content, sendAt or priority is a client bug, not a
+     * retry.
+     */
+    private static boolean isSameMessage(SmsResponse original, SmsRequest request) {
+        MessagePriority priority = request.getPriority() != null ? request.getPriority() : MessagePriority.NORMAL;
+        return PhoneNumbers.parse(original.getSourceNumber()) == PhoneNumbers.parse(request.getSourceNumber())
+            && PhoneNumbers.parse(original.getDestinationNumber()) == PhoneNumbers.parse(request.getDestinationNumber())
+            && original.getContent().equals(request.getContent())
+            && original.getPriority() == priority
+            && isSameSendAt(original, request.getSendAt());
+    }
+
+    /**
+     * Only a sendAt in the future was stored (newMessage), one that was
+     * already due when the message was created matches no sendAt.
+     */
+    private static boolean isSameSendAt(SmsResponse original, LocalDateTime sendAt) {
+        if (original.getSendAt() == null) {
+            return sendAt == null || !sendAt.isAfter(original.getCreatedAt());
+        }
+        // Stored with microsecond precision
+        return sendAt != null
+            && original.getSendAt().truncatedTo(ChronoUnit.MICROS).equals(sendAt.truncatedTo(ChronoUnit.MICROS));
+    }
+
+    /**
+     * Persists one chunk of a batch together with its outbox events.
+     * Called inside its own transaction, Hibernate flushes the whole
+     * chunk at commit.
+     */
+    private List<Message> persistChunk(List<SmsRequest> requests, List<Integer> indexes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Message> messages = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            messages.add(newMessage(requests.get(index), now));
+        }
+        messageRepository.persist(messages);
+        persistParts(messages);
+        queue(messages);
+        return messages;
+    }
+
+    /**
+     * Writes one PENDING MessagePart per segment of every long message,
+     * single SMS have none.
+     */
+    private void persistParts(List<Message> messages) {
+        List<MessagePart> parts = new ArrayList<>();
+        for (Message message : messages) {
+            for (int part = 1; message.segments > 1 && part <= message.segments; part++) {
+                parts.add(new MessagePart(message, part));
+            }
+        }
+        if (!parts.isEmpty()) {
+            partRepository.persist(parts);
+        }
+    }
+
+    /**
+     * Creates the entity, SCHEDULED if the request has a sendAt in the future.
+     */
+    private Message newMessage(SmsRequest request, LocalDateTime now) {
+        Message message = new Message(
+            request.getSourceNumber(),
+            request.getDestinationNumber(),
+            request.getContent()
+        );
+        if (request.getPriority() != null) {
+            message.priority = request.getPriority();
+        }
+        if (request.getSendAt() != null && request.getSendAt().isAfter(now)) {
+            message.scheduleAt(request.getSendAt());
+        }
+        return message;
+    }
+
+    /**
+     * Writes the outbox events of the PENDING messages (published to
+     * RabbitMQ by the OutboxRelay after commit). SCHEDULED messages get no
+     * event yet, they are handed to the ScheduledDispatcher after commit.
+     */
+    private void queue(List<Message> messages) {
+        List<Message> pending = new ArrayList<>(messages.size());
+        List<Message> scheduled = new ArrayList<>();
+        for (Message message : messages) {
+            if (message.status == MessageStatus.SCHEDULED) {
+                scheduled.add(message);
+            } else {
+                pending.add(message);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            outboxRepository.persist(pending.stream().map(OutboxEvent::new));
+            afterCommit(() -> statistics.recordSent(pending.size()));
+        }
+        if (!scheduled.isEmpty()) {
+            afterCommit(() -> {
+                statistics.recordScheduled(scheduled.size());
+                scheduled.forEach(message -> scheduledDispatcher.schedule(message.id, message.createdAt, message.sendAt));
+            });
+        }
+    }
+
+    /**
+     * Runs the action once the current transaction has committed, nothing
+     * happens on rollback. Used to count messages only once they are stored.
+     */
+    private void afterCommit(Runnable action) {
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Validates a single batch item (Bean Validation + business rules).
+     * 
+     * The single send endpoint gets Bean Validation from @Valid, batch items
+     * are validated here so one bad item doesn't fail the whole request.
+     * 
+     * @return the validation errors, empty if the item is valid
+     */
+    private List<String> validateItem(SmsRequest request) {
+        if (request == null) {
+            return List.of("Message is required");
+        }
+
+        Set<ConstraintViolation<SmsRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toList());
+        }
+
+        String businessRuleError = checkBusinessRules(request);
+        return businessRuleError == null ? List.of() : List.of(businessRuleError);
     }
 
     /**
      * Validates business rules that aren't covered by Bean Validation.
      */
     private void validateBusinessRules(SmsRequest request) {
-        // Rule: Source and destination cannot be the same
-        if (request.getSourceNumber().equals(request.getDestinationNumber())) {
-            throw new InvalidMessageException("Source and destination numbers cannot be the same");
+        String error = checkBusinessRules(request);
+        if (error != null) {
+            throw new InvalidMessageException(error);
+        }
+    }
+
+    /**
+     * @return the violated business rule, or null if the request is valid
+     */
+    private String checkBusinessRules(SmsRequest request) {
+        // Rule: Source and destination cannot be the same (compared in canonical form)
+        if (PhoneNumbers.parse(request.getSourceNumber()) == PhoneNumbers.parse(request.getDestinationNumber())) {
+            return "Source and destination numbers cannot be the same";
+        }
+        // Rule: Scheduled sends are limited to sms.schedule.max-delay ahead
+        if (request.getSendAt() != null && request.getSendAt().isAfter(LocalDateTime.now().plus(scheduleMaxDelay))) {
+            return "Send time cannot be more than " + scheduleMaxDelay.toDays() + " days in the future";
         }
+        return null;
     }
 }
\ No newline at end of file
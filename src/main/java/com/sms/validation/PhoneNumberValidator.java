@@ -2,7 +2,6 @@ package com.sms.validation;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import java.util.regex.Pattern;
 
 /**
  * Validator implementation for @ValidPhoneNumber annotation.
@@ -13,21 +12,12 @@ import java.util.regex.Pattern;
  * - No spaces, dashes, or other characters
  * 
  * E.164 is the international telephone numbering standard.
+ * The check is done by PhoneNumbers.parse (no regex, no allocation).
  * 
  * @see <a href="https://en.wikipedia.org/wiki/E.164">E.164 Standard</a>
  */
 public class PhoneNumberValidator implements ConstraintValidator<ValidPhoneNumber, String> {
 
-    /**
-     * Regex pattern for phone number validation.
-     * 
-     * ^\\+?     - Optional + at the start
-     * [1-9]    - First digit must be 1-9 (no leading zeros)
-     * \\d{6,14} - Followed by 6-14 more digits (total 7-15 digits)
-     * $        - End of string
-     */
-    private static final Pattern PHONE_PATTERN = Pattern.compile("^\\+?[1-9]\\d{6,14}$");
-
     @Override
     public void initialize(ValidPhoneNumber constraintAnnotation) {
         // No initialization needed
@@ -40,6 +30,6 @@ public class PhoneNumberValidator implements ConstraintValidator<ValidPhoneNumbe
             return true;
         }
 
-        return PHONE_PATTERN.matcher(phoneNumber).matches();
+        return PhoneNumbers.parse(phoneNumber) != PhoneNumbers.INVALID;
     }
 }
\ No newline at end of file
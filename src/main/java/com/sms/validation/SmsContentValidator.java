@@ -0,0 +1,30 @@
+package com.sms.validation;
+
+import com.sms.encoding.Segments;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validator implementation for @ValidSmsContent annotation.
+ * 
+ * The length check comes first, so an oversized text is rejected without
+ * being scanned. Counting the segments allocates nothing (see Segments).
+ */
+public class SmsContentValidator implements ConstraintValidator<ValidSmsContent, String> {
+
+    @Override
+    public void initialize(ValidSmsContent constraintAnnotation) {
+        // No initialization needed
+    }
+
+    @Override
+    public boolean isValid(String content, ConstraintValidatorContext context) {
+        // Null values are handled by @NotBlank
+        if (content == null || content.isBlank()) {
+            return true;
+        }
+
+        return content.length() <= Segments.MAX_CONTENT_LENGTH
+            && Segments.count(content) <= Segments.MAX_SEGMENTS;
+    }
+}
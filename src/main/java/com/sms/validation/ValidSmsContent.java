@@ -0,0 +1,36 @@
+package com.sms.validation;
+
+import com.sms.encoding.Segments;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Custom validation annotation for SMS content.
+ * 
+ * Validates that the content fits in at most Segments.MAX_SEGMENTS SMS
+ * segments. How many characters that is depends on the encoding: 1530
+ * GSM-7 characters (fewer if extension characters like '{' or '€' are
+ * used), or 670 characters if the text needs UCS-2 (Unicode).
+ * 
+ * Usage:
+ * @ValidSmsContent
+ * private String content;
+ */
+@Documented
+@Constraint(validatedBy = SmsContentValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidSmsContent {
+
+    String message() default "Message content cannot exceed " + Segments.MAX_SEGMENTS
+        + " SMS segments (1530 GSM-7 or 670 Unicode characters)";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
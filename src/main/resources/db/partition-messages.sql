@@ -0,0 +1,84 @@
+-- Converts messages, message_parts and idempotency_keys into tables range partitioned by month
+-- (PostgreSQL 14+): messages and message_parts on the created_at of the message, idempotency_keys
+-- on key_month.
+--
+-- Run once, with the service stopped and the schema up to date (upgrade-schema.sql):
+-- psql -d sms_db -f partition-messages.sql
+-- Existing rows are copied into monthly partitions (<table>_pYYYY_MM), the months after that
+-- are created and the old ones retired by the service (MessagePartitions, sms.partitions.*).
+--
+-- The primary keys include the partition key: a partitioned table can only enforce uniqueness
+-- together with it. Idempotency keys move to their own table for that reason, unique per month.
+
+BEGIN;
+
+ALTER TABLE messages RENAME TO messages_unpartitioned;
+ALTER TABLE messages_unpartitioned RENAME CONSTRAINT messages_pkey TO messages_unpartitioned_pkey;
+DROP INDEX IF EXISTS idx_messages_source_e164, idx_messages_destination_e164, idx_messages_status_send_at;
+
+CREATE TABLE messages (LIKE messages_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+ALTER TABLE messages ADD PRIMARY KEY (id, created_at);
+CREATE INDEX idx_messages_source_e164 ON messages (source_e164, created_at, id);
+CREATE INDEX idx_messages_destination_e164 ON messages (destination_e164, created_at, id);
+CREATE INDEX idx_messages_status_send_at ON messages (status, send_at, id);
+
+-- Parts carry the created_at of their message, so they live in the partition of its month.
+ALTER TABLE message_parts RENAME TO message_parts_unpartitioned;
+ALTER TABLE message_parts_unpartitioned RENAME CONSTRAINT message_parts_pkey TO message_parts_unpartitioned_pkey;
+DROP INDEX IF EXISTS idx_message_parts_message;
+ALTER TABLE message_parts_unpartitioned ADD COLUMN IF NOT EXISTS created_at timestamp(6);
+
+CREATE TABLE message_parts (LIKE message_parts_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+ALTER TABLE message_parts ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE message_parts ADD PRIMARY KEY (id, created_at);
+CREATE UNIQUE INDEX idx_message_parts_message ON message_parts (message_id, part_number, created_at);
+
+-- Only the keys of the current and the previous month are honoured, the service drops older months.
+DROP TABLE IF EXISTS idempotency_keys;
+CREATE TABLE idempotency_keys (
+    idempotency_key varchar(255) NOT NULL,
+    message_id bigint NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    key_month date NOT NULL,
+    PRIMARY KEY (idempotency_key, key_month)
+) PARTITION BY RANGE (key_month);
+
+-- One partition per month from the oldest message up to 3 months ahead. No DEFAULT partition:
+-- it would block DETACH PARTITION CONCURRENTLY in the retention job.
+DO $$
+DECLARE
+    month date;
+    oldest date := date_trunc('month', coalesce((SELECT min(created_at) FROM messages_unpartitioned), now()));
+    latest date := date_trunc('month', now()) + interval '3 months';
+BEGIN
+    FOR month IN SELECT generate_series(oldest, latest, interval '1 month')::date LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF messages FOR VALUES FROM (%L) TO (%L)',
+            'messages_p' || to_char(month, 'YYYY_MM'), month, (month + interval '1 month')::date);
+        EXECUTE format('CREATE TABLE %I PARTITION OF message_parts FOR VALUES FROM (%L) TO (%L)',
+            'message_parts_p' || to_char(month, 'YYYY_MM'), month, (month + interval '1 month')::date);
+    END LOOP;
+    FOR month IN SELECT generate_series(date_trunc('month', now()) - interval '1 month', latest, interval '1 month')::date LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF idempotency_keys FOR VALUES FROM (%L) TO (%L)',
+            'idempotency_keys_p' || to_char(month, 'YYYY_MM'), month, (month + interval '1 month')::date);
+    END LOOP;
+END $$;
+
+INSERT INTO messages SELECT * FROM messages_unpartitioned;
+
+INSERT INTO message_parts (id, message_id, part_number, status, error_message, updated_at, created_at)
+    SELECT p.id, p.message_id, p.part_number, p.status, p.error_message, p.updated_at, m.created_at
+    FROM message_parts_unpartitioned p JOIN messages_unpartitioned m ON m.id = p.message_id;
+
+INSERT INTO idempotency_keys (idempotency_key, message_id, created_at, key_month)
+    SELECT idempotency_key, id, created_at, date_trunc('month', created_at)::date FROM messages_unpartitioned
+    WHERE idempotency_key IS NOT NULL AND created_at >= date_trunc('month', now()) - interval '1 month'
+    ON CONFLICT DO NOTHING;
+
+DROP TABLE message_parts_unpartitioned;
+DROP TABLE messages_unpartitioned;
+
+COMMIT;
+
+ANALYZE messages;
+ANALYZE message_parts;
+ANALYZE idempotency_keys;
@@ -0,0 +1,87 @@
+-- Brings a database created by an older version up to the current entities (PostgreSQL).
+--
+-- quarkus.hibernate-orm.database.generation=update only creates missing tables and columns: it never
+-- widens a column, drops a NOT NULL or fills a new column of existing rows. Run this once before
+-- starting a new version, with the service stopped: psql -d sms_db -f upgrade-schema.sql
+-- Every step checks its own state, so running it again (or on an up to date database) changes nothing.
+--
+-- Pass the service's sms.id.allocation-size if it isn't the default 50:
+-- psql -d sms_db -v allocation_size=100 -f upgrade-schema.sql
+
+\if :{?allocation_size}
+\else
+\set allocation_size 50
+\endif
+
+BEGIN;
+
+-- Pooled sequence IDs instead of IDENTITY (see PooledSequenceGenerator): every nextval() hands out
+-- a block of allocation-size IDs, so INCREMENT BY must match it, and the sequences must start above
+-- the IDs the IDENTITY columns already gave out, or the first inserts reuse existing keys
+ALTER TABLE messages ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE outbox_events ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS messages_seq INCREMENT BY :allocation_size;
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq INCREMENT BY :allocation_size;
+ALTER SEQUENCE messages_seq INCREMENT BY :allocation_size;
+ALTER SEQUENCE outbox_events_seq INCREMENT BY :allocation_size;
+-- Never moves a sequence back, the next block starts above max(id)
+SELECT setval('messages_seq', greatest(coalesce((SELECT max(id) FROM messages), 1), (SELECT last_value FROM messages_seq)));
+SELECT setval('outbox_events_seq', greatest(coalesce((SELECT max(id) FROM outbox_events), 1), (SELECT last_value FROM outbox_events_seq)));
+
+-- Long messages: content up to 10 segments (Segments.MAX_CONTENT_LENGTH)
+ALTER TABLE messages ALTER COLUMN message_content TYPE varchar(1530);
+
+-- Packed GSM-7 content: message_content is null when the content is in content_packed
+ALTER TABLE messages ALTER COLUMN message_content DROP NOT NULL;
+
+-- Numeric phone numbers: history lookups only filter on source_e164 / destination_e164, so rows
+-- written before get them filled, and their text numbers in the canonical +E.164 form
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS source_e164 bigint;
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS destination_e164 bigint;
+UPDATE messages SET
+        source_e164 = CAST(ltrim(source_number, '+') AS BIGINT),
+        destination_e164 = CAST(ltrim(destination_number, '+') AS BIGINT),
+        source_number = '+' || ltrim(source_number, '+'),
+        destination_number = '+' || ltrim(destination_number, '+')
+    WHERE source_e164 IS NULL OR destination_e164 IS NULL;
+
+-- Parts carry the created_at of their message (partition key of message_parts). A database from
+-- before long messages has no message_parts yet, the service creates it.
+DO $$
+BEGIN
+    IF to_regclass('message_parts') IS NOT NULL THEN
+        ALTER TABLE message_parts ADD COLUMN IF NOT EXISTS created_at timestamp(6);
+        UPDATE message_parts p SET created_at = m.created_at
+            FROM messages m WHERE m.id = p.message_id AND p.created_at IS NULL;
+        ALTER TABLE message_parts ALTER COLUMN created_at SET NOT NULL;
+        IF NOT EXISTS (SELECT 1 FROM pg_indexes
+                       WHERE indexname = 'idx_message_parts_message' AND indexdef LIKE '%created_at%') THEN
+            DROP INDEX IF EXISTS idx_message_parts_message;
+            CREATE UNIQUE INDEX idx_message_parts_message ON message_parts (message_id, part_number, created_at);
+        END IF;
+    END IF;
+END $$;
+
+-- Idempotency keys moved out of messages: fill the table from the messages once
+DO $$
+BEGIN
+    IF to_regclass('idempotency_keys') IS NULL THEN
+        CREATE TABLE idempotency_keys (
+            idempotency_key varchar(255) PRIMARY KEY,
+            message_id bigint NOT NULL,
+            created_at timestamp(6) NOT NULL,
+            key_month date NOT NULL
+        );
+        INSERT INTO idempotency_keys (idempotency_key, message_id, created_at, key_month)
+            SELECT idempotency_key, id, created_at, date_trunc('month', created_at)::date FROM messages
+            WHERE idempotency_key IS NOT NULL
+            ON CONFLICT DO NOTHING;
+    END IF;
+END $$;
+
+-- Idempotency keys carry their month (partition key of idempotency_keys)
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS key_month date;
+UPDATE idempotency_keys SET key_month = date_trunc('month', created_at)::date WHERE key_month IS NULL;
+ALTER TABLE idempotency_keys ALTER COLUMN key_month SET NOT NULL;
+
+COMMIT;
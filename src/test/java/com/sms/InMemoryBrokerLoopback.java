@@ -0,0 +1,59 @@
+package com.sms;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.SubscriberDecorator;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySource;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+/**
+ * Stands in for the RabbitMQ queues between the in-memory channels
+ * (sms-outgoing -> sms-incoming, sms-outgoing-high -> sms-incoming-high).
+ *
+ * With the in-memory connector, everything published to sms-outgoing ends
+ * up in a sink list and nothing ever reaches sms-incoming. When
+ * sms.test.broker-loopback is enabled, this decorator takes each outgoing
+ * message, hands its payload to the sms-incoming source as JSON (like the
+ * RabbitMQ connector does with content-type application/json) and
+ * confirms the publish. The message doesn't reach the sink, so the sink
+ * doesn't grow during long load runs.
+ *
+ * Disabled by default: other tests keep the plain in-memory channels.
+ */
+@ApplicationScoped
+public class InMemoryBrokerLoopback implements SubscriberDecorator {
+
+    private static final Map<String, String> QUEUES = Map.of(
+        "sms-outgoing", "sms-incoming",
+        "sms-outgoing-high", "sms-incoming-high");
+
+    @Inject
+    @Any
+    InMemoryConnector connector;
+
+    @ConfigProperty(name = "sms.test.broker-loopback", defaultValue = "false")
+    boolean enabled;
+
+    @Override
+    public Multi<? extends Message<?>> decorate(Multi<? extends Message<?>> toBeSubscribed, List<String> channelName, boolean isConnector) {
+        String incoming = channelName.stream().map(QUEUES::get).filter(name -> name != null).findFirst().orElse(null);
+        if (!enabled || !isConnector || incoming == null) {
+            return toBeSubscribed;
+        }
+
+        InMemorySource<JsonObject> queue = connector.source(incoming);
+        return toBeSubscribed
+            .invoke(message -> {
+                queue.send(JsonObject.mapFrom(message.getPayload()));
+                message.ack();
+            })
+            .select().where(message -> false);
+    }
+}
@@ -0,0 +1,244 @@
+package com.sms;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * End-to-end load harness: send → outbox → queue → consume → status,
+ * without any network service.
+ *
+ * RabbitMQ is replaced by the in-memory channels, connected to each other
+ * by InMemoryBrokerLoopback, PostgreSQL by embedded H2. Everything else is
+ * the real pipeline: REST endpoint, outbox relay, consumer, simulated
+ * carrier and batched status writer.
+ *
+ * For every rate (messages/sec) the harness sends POST /api/sms/send open
+ * loop: request i is due at start + i / rate whether or not earlier
+ * requests have returned, and its latency is measured from that due time,
+ * so a stalled server shows up as latency instead of a lower send rate.
+ * Then it waits until every message has its final status and reports:
+ * - sent/s: rate the requests were actually answered at
+ * - done/s: messages that reached their final status per second (sustained)
+ * - send latency p50/p99/p999
+ * - time to final status p50/p99/p999 (updated_at - created_at)
+ *
+ * Not part of the regular build (tagged "benchmark"), run with:
+ * ./mvnw test -Pbenchmark -Dtest=PipelineLoadBenchmark
+ *
+ * Options (system properties):
+ * - load.rates: comma separated rates, default 200,500,1000
+ * - load.duration: seconds per rate, default 10
+ * - load.carrier-latency: simulated carrier latency, default 5ms
+ * - load.api-mode: blocking or reactive (sms.api.mode), default blocking
+ */
+@Tag("benchmark")
+@QuarkusTest
+@TestProfile(PipelineLoadBenchmark.LoadProfile.class)
+class PipelineLoadBenchmark {
+
+    private static final int[] RATES = Arrays.stream(System.getProperty("load.rates", "200,500,1000").split(","))
+        .mapToInt(rate -> Integer.parseInt(rate.trim()))
+        .toArray();
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 10);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(Integer.getInteger("load.drain-timeout", 120));
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    @TestHTTPResource("/api/sms/send")
+    URI sendUri;
+
+    @Inject
+    DataSource dataSource;
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .build();
+
+    /**
+     * Results of one rate step.
+     */
+    private record StepResult(int rate, int messages, double sentPerSecond, double donePerSecond,
+                              long[] sendLatencies, long[] finalStatusLatencies) {
+    }
+
+    @Test
+    void pipeline() throws Exception {
+        // Warm-up: JIT, connection pool, sequences
+        runStep(Math.min(RATES[0], 100), 2);
+
+        List<StepResult> results = new ArrayList<>();
+        for (int rate : RATES) {
+            results.add(runStep(rate, DURATION_SECONDS));
+        }
+
+        System.out.printf("%nPipeline load, %d s per rate, carrier latency %s%n", DURATION_SECONDS,
+            System.getProperty("load.carrier-latency", "5ms"));
+        System.out.printf("  %8s %8s %10s %10s | %-26s | %-26s%n", "rate", "msgs", "sent/s", "done/s",
+            "send ms p50/p99/p999", "final status ms p50/p99/p999");
+        for (StepResult result : results) {
+            System.out.printf("  %8d %8d %10.1f %10.1f | %-26s | %-26s%n",
+                result.rate(), result.messages(), result.sentPerSecond(), result.donePerSecond(),
+                percentiles(result.sendLatencies()), percentiles(result.finalStatusLatencies()));
+        }
+    }
+
+    /**
+     * Send rate * seconds messages open loop, then wait for all final statuses.
+     */
+    private StepResult runStep(int rate, int seconds) throws Exception {
+        int count = rate * seconds;
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long[] sendLatencies = new long[count];
+        AtomicLong minId = new AtomicLong(Long.MAX_VALUE);
+        AtomicLong maxId = new AtomicLong(Long.MIN_VALUE);
+        AtomicInteger failures = new AtomicInteger();
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[count];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            long due = start + i * periodNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int index = i;
+            responses[i] = client.sendAsync(sendRequest(i), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> {
+                    sendLatencies[index] = System.nanoTime() - due;
+                    if (failure != null || response.statusCode() != 201) {
+                        failures.incrementAndGet();
+                        return;
+                    }
+                    Matcher id = ID_PATTERN.matcher(response.body());
+                    if (id.find()) {
+                        long value = Long.parseLong(id.group(1));
+                        minId.accumulateAndGet(value, Math::min);
+                        maxId.accumulateAndGet(value, Math::max);
+                    }
+                });
+        }
+        CompletableFuture.allOf(responses).exceptionally(failure -> null).join();
+        long sent = System.nanoTime();
+        assertEquals(0, failures.get(), "Failed send requests");
+
+        awaitFinalStatus(minId.get(), maxId.get());
+        long done = System.nanoTime();
+
+        long[] finalStatusLatencies = finalStatusLatencies(minId.get(), maxId.get());
+        assertEquals(count, finalStatusLatencies.length, "Messages without final status");
+
+        return new StepResult(rate, count,
+            count / ((sent - start) / 1e9),
+            count / ((done - start) / 1e9),
+            sendLatencies, finalStatusLatencies);
+    }
+
+    private HttpRequest sendRequest(int i) {
+        String body = "{\"sourceNumber\":\"+1555" + (1_000_000 + i % 1000) + "\","
+            + "\"destinationNumber\":\"+1666" + (1_000_000 + i) + "\","
+            + "\"content\":\"Load test message " + i + "\"}";
+        return HttpRequest.newBuilder(sendUri)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private void awaitFinalStatus(long minId, long maxId) throws SQLException, InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        String sql = "SELECT count(*) FROM messages WHERE id BETWEEN ? AND ? AND status = 'PENDING'";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pending = connection.prepareStatement(sql)) {
+            pending.setLong(1, minId);
+            pending.setLong(2, maxId);
+            while (System.nanoTime() < deadline) {
+                try (ResultSet rs = pending.executeQuery()) {
+                    rs.next();
+                    if (rs.getLong(1) == 0) {
+                        return;
+                    }
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    /**
+     * @return updated_at - created_at in nanoseconds, of every message that has its final status
+     */
+    private long[] finalStatusLatencies(long minId, long maxId) throws SQLException {
+        String sql = "SELECT created_at, updated_at FROM messages WHERE id BETWEEN ? AND ? AND status <> 'PENDING'";
+        List<Long> latencies = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement query = connection.prepareStatement(sql)) {
+            query.setLong(1, minId);
+            query.setLong(2, maxId);
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    Duration latency = Duration.between(rs.getTimestamp(1).toLocalDateTime(), rs.getTimestamp(2).toLocalDateTime());
+                    latencies.add(latency.toNanos());
+                }
+            }
+        }
+        return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static String percentiles(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format("%.1f / %.1f / %.1f", millis(sorted, 0.5), millis(sorted, 0.99), millis(sorted, 0.999));
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * Own application instance with the in-memory broker loopback, a fast
+     * carrier, no sender rate limit and quiet per-message logging.
+     */
+    public static class LoadProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "sms.test.broker-loopback", "true",
+                "sms.api.mode", System.getProperty("load.api-mode", "blocking"),
+                "sms.rate-limit.sender.rate", "0",
+                "sms.delivery.retry.max-attempts", "1",
+                "sms.gateway.simulator.latency.distribution", "fixed",
+                "sms.gateway.simulator.latency.fixed", System.getProperty("load.carrier-latency", "5ms"),
+                "quarkus.log.category.\"com.sms\".level", "ERROR",
+                "quarkus.hibernate-orm.statistics", "false"
+            );
+        }
+    }
+}
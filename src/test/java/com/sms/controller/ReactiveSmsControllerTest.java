@@ -0,0 +1,59 @@
+package com.sms.controller;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * The reactive API mode serves the same endpoints as the blocking one:
+ * send, then poll the message by ID (second poll from the cache).
+ */
+@QuarkusTest
+@TestProfile(ReactiveSmsControllerTest.ReactiveProfile.class)
+class ReactiveSmsControllerTest {
+
+    @Test
+    void sendsAndPollsMessage() {
+        given()
+            .when().get("/api/sms")
+            .then()
+            .statusCode(200)
+            .body("mode", is("reactive"));
+
+        Integer id = given()
+            .contentType("application/json")
+            .body("{\"sourceNumber\":\"+306912345678\",\"destinationNumber\":\"+306987654321\",\"content\":\"Hello reactive\"}")
+            .when().post("/api/sms/send")
+            .then()
+            .statusCode(201)
+            .extract().path("id");
+
+        for (int poll = 0; poll < 2; poll++) {
+            given()
+                .when().get("/api/sms/" + id)
+                .then()
+                .statusCode(200)
+                .body("content", is("Hello reactive"));
+        }
+    }
+
+    @Test
+    void unknownMessageIsNotFound() {
+        given()
+            .when().get("/api/sms/999999999")
+            .then()
+            .statusCode(404);
+    }
+
+    public static class ReactiveProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("sms.api.mode", "reactive");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.sms.controller;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A sendAt with an explicit offset is the same instant in server local
+ * time, whatever zone the client is in. The sendAt is part of the message
+ * an Idempotency-Key stands for.
+ */
+@QuarkusTest
+class ScheduledSendTest {
+
+    @Test
+    void sendAtWithOffsetIsConvertedToServerTime() {
+        // An offset no server zone is likely to have, so the conversion shows
+        OffsetDateTime sendAt = OffsetDateTime.now(ZoneOffset.ofHoursMinutes(5, 45))
+            .plusHours(2)
+            .truncatedTo(ChronoUnit.SECONDS);
+
+        String stored = given()
+            .contentType("application/json")
+            .body("{\"sourceNumber\":\"+306912345678\",\"destinationNumber\":\"+306987654321\","
+                + "\"content\":\"Later\",\"sendAt\":\"" + sendAt + "\"}")
+            .when().post("/api/sms/send")
+            .then()
+            .statusCode(201)
+            .body("status", is("SCHEDULED"))
+            .extract().path("sendAt");
+
+        assertEquals(sendAt.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(), LocalDateTime.parse(stored));
+    }
+
+    @Test
+    void reusedKeyWithOtherSendAtIsRejected() {
+        String body = "{\"sourceNumber\":\"+306912345678\",\"destinationNumber\":\"+306987654321\","
+            + "\"content\":\"Later\",\"sendAt\":\"%s\"}";
+        LocalDateTime sendAt = LocalDateTime.now().plusHours(2).truncatedTo(ChronoUnit.SECONDS);
+
+        given()
+            .contentType("application/json")
+            .header("Idempotency-Key", "scheduled-send-reused-key")
+            .body(String.format(body, sendAt))
+            .when().post("/api/sms/send")
+            .then()
+            .statusCode(201);
+
+        given()
+            .contentType("application/json")
+            .header("Idempotency-Key", "scheduled-send-reused-key")
+            .body(String.format(body, sendAt.plusHours(1)))
+            .when().post("/api/sms/send")
+            .then()
+            .statusCode(400);
+    }
+}
@@ -0,0 +1,36 @@
+package com.sms.encoding;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Packing follows GSM 03.38 and unpack() gives back exactly the packed
+ * text, whatever its length (including the 7 spare bits case).
+ */
+class Gsm7Test {
+
+    private static final String ALPHABET = "@£$¥èéùìòÇ\nØø\rÅåΔ_ΦΓΛΩΠΨΣΘΞÆæßÉ !\"#¤%&'()*+,-./0123456789:;<=>?"
+        + "¡ABCDEFGHIJKLMNOPQRSTUVWXYZÄÖÑÜ§¿abcdefghijklmnopqrstuvwxyzäöñüà\f^{}\\[~]|€";
+
+    @Test
+    void packsSeptets() {
+        byte[] expected = {(byte) 0xE8, 0x32, (byte) 0x9B, (byte) 0xFD, 0x46, (byte) 0x97, (byte) 0xD9, (byte) 0xEC, 0x37};
+        assertArrayEquals(expected, Gsm7.pack("hellohello"));
+        assertEquals(140, Gsm7.pack("x".repeat(160)).length);
+    }
+
+    @Test
+    void unpacksWhatWasPacked() {
+        Random random = new Random(42);
+        for (int run = 0; run < 10_000; run++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(200); i > 0; i--) {
+                text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertEquals(text.toString(), Gsm7.unpack(Gsm7.pack(text)));
+        }
+    }
+}
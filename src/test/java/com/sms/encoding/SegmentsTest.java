@@ -0,0 +1,46 @@
+package com.sms.encoding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Segment counts follow the encoding of the text, and part boundaries
+ * never split an extension character or a surrogate pair.
+ */
+class SegmentsTest {
+
+    @Test
+    void countsGsm7Segments() {
+        assertEquals(1, Segments.count("x".repeat(160)));
+        assertEquals(2, Segments.count("x".repeat(161)));
+        assertEquals(2, Segments.count("x".repeat(306)));
+        assertEquals(3, Segments.count("x".repeat(307)));
+        assertEquals(Segments.MAX_SEGMENTS, Segments.count("x".repeat(Segments.MAX_CONTENT_LENGTH)));
+
+        // Extension characters take two septets
+        assertEquals(1, Segments.count("€".repeat(80)));
+        assertEquals(2, Segments.count("{".repeat(81)));
+    }
+
+    @Test
+    void countsUcs2Segments() {
+        assertEquals(SmsEncoding.UCS2, SmsEncoding.of("Γειά σου κόσμε ж"));
+        assertEquals(1, Segments.count("ж".repeat(70)));
+        assertEquals(2, Segments.count("ж".repeat(71)));
+        assertEquals(2, Segments.count("ж".repeat(134)));
+        assertEquals(3, Segments.count("ж".repeat(135)));
+    }
+
+    @Test
+    void keepsCharactersWhole() {
+        // 152 septets, then '€' (2 septets) doesn't fit the 153 of part 1
+        String gsm = "x".repeat(152) + "€" + "y".repeat(10);
+        assertArrayEquals(new int[] {152, gsm.length()}, Segments.ends(gsm));
+
+        // 66 code units, then the emoji (surrogate pair) doesn't fit the 67 of part 1
+        String ucs2 = "a".repeat(66) + "😀" + "b".repeat(10);
+        assertArrayEquals(new int[] {66, ucs2.length()}, Segments.ends(ucs2));
+    }
+}
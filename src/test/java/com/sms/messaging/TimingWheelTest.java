@@ -0,0 +1,64 @@
+package com.sms.messaging;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every entry fires exactly at its due tick, with its data, whichever
+ * level it was put on and however far the wheel is advanced at once.
+ */
+class TimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void firesEveryEntryAtItsDueTick() {
+        TimingWheel wheel = new TimingWheel(16, 4, START);
+        Map<Long, Long> dueTicks = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        TimingWheel.Expiry expiry = (id, data) -> {
+            long due = dueTicks.remove(id);
+            if (due != wheel.currentTick() || data != due) {
+                errors.add("id=" + id + " due=" + due + " fired=" + wheel.currentTick() + " data=" + data);
+            }
+        };
+
+        Random random = new Random(42);
+        long id = 0;
+        long now = START;
+        for (int step = 0; step < 100_000; step++) {
+            if (random.nextInt(3) == 0) {
+                // Short and long delays, so all levels and cascades are used
+                long due = now + 1 + random.nextInt(random.nextBoolean() ? 20 : 60_000);
+                dueTicks.put(id, due);
+                wheel.add(id++, due, due, expiry);
+            }
+            now += random.nextInt(10) == 0 ? random.nextInt(50) : 1;
+            wheel.advanceTo(now, expiry);
+        }
+        wheel.advanceTo(now + 100_000, expiry);
+
+        assertTrue(errors.isEmpty(), () -> errors.size() + " entries fired at the wrong tick, e.g. " + errors.get(0));
+        assertTrue(dueTicks.isEmpty(), "Entries never fired: " + dueTicks.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void entryAlreadyDueFiresRightAway() {
+        TimingWheel wheel = new TimingWheel(16, 4, START);
+        List<Long> fired = new ArrayList<>();
+
+        wheel.add(1, 0, START - 10, (id, data) -> fired.add(id));
+        wheel.add(2, 0, START, (id, data) -> fired.add(id));
+
+        assertEquals(List.of(1L, 2L), fired);
+        assertEquals(0, wheel.size());
+    }
+}
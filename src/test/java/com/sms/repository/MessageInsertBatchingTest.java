@@ -0,0 +1,65 @@
+package com.sms.repository;
+
+import com.sms.model.Message;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that inserting N messages doesn't cost N statements anymore
+ * (pooled sequence IDs + JDBC batching).
+ */
+@QuarkusTest
+@TestProfile(MessageInsertBatchingTest.NoRelayProfile.class)
+class MessageInsertBatchingTest {
+
+    private static final int MESSAGES = 1000;
+
+    @Inject
+    MessageRepository messageRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void insertsAreBatched() {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            List<Message> messages = new ArrayList<>(MESSAGES);
+            for (int i = 0; i < MESSAGES; i++) {
+                messages.add(new Message("+306912345678", "+306987654321", "Batch " + i));
+            }
+            messageRepository.persist(messages);
+        });
+
+        assertEquals(MESSAGES, statistics.getEntityInsertCount());
+
+        // 1000 rows / batch size 50 = 20 INSERT batches, plus 20 nextval() calls (allocation size 50)
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= MESSAGES / 20,
+            "Expected at most " + (MESSAGES / 20) + " statements for " + MESSAGES + " inserts, got " + statements);
+    }
+
+    /**
+     * Keeps the outbox relay from polling while statements are counted.
+     */
+    public static class NoRelayProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("sms.outbox.relay.enabled", "false");
+        }
+    }
+}
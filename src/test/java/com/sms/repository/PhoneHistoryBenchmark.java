@@ -0,0 +1,170 @@
+package com.sms.repository;
+
+import com.sms.model.Message;
+import com.sms.validation.PhoneNumbers;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Phone history: two full lists merged in memory vs one index-backed query.
+ *
+ * Seeds a large messages table (default 1,000,000 rows, -Dbenchmark.rows=N),
+ * where one "hot" number (think short code) takes part in ~2% of all
+ * messages, then times:
+ * - old:    findBySourceNumber + findByDestinationNumber, addAll, sort, take first page
+ * - page:   findPageByPhoneNumber (UNION ALL of two index range scans, LIMIT 50)
+ * - stream: streamByPhoneNumber, read the first page and close
+ *
+ * Not part of the regular build (tagged "benchmark"), run with:
+ * ./mvnw test -Pbenchmark -Dtest=PhoneHistoryBenchmark
+ */
+@Tag("benchmark")
+@QuarkusTest
+@TestProfile(PhoneHistoryBenchmark.BenchmarkProfile.class)
+class PhoneHistoryBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 20);
+    private static final int PAGE_SIZE = 50;
+
+    /**
+     * Seeded rows get IDs far above the sequence range.
+     */
+    private static final long ID_OFFSET = 1_000_000_000L;
+
+    private static final long HOT_NUMBER = 15550000000L;
+
+    @Inject
+    MessageRepository messageRepository;
+
+    @Inject
+    DataSource dataSource;
+
+    @Test
+    void phoneHistory() throws SQLException {
+        seed();
+
+        HistoryFilter firstPage = new HistoryFilter(null, null, null, null, null, PAGE_SIZE);
+
+        double oldMillis = measure("old (2 lists + merge)", () -> {
+            List<Message> all = new ArrayList<>(messageRepository.findBySourceNumber(HOT_NUMBER));
+            all.addAll(messageRepository.findByDestinationNumber(HOT_NUMBER));
+            all.sort(Comparator.comparing((Message m) -> m.createdAt).thenComparing(m -> m.id).reversed());
+            return all.subList(0, PAGE_SIZE);
+        });
+
+        double pageMillis = measure("page (UNION ALL + LIMIT)", () -> messageRepository.findPageByPhoneNumber(HOT_NUMBER, firstPage));
+
+        double streamMillis = measure("stream (first page)", () -> {
+            try (Stream<Message> stream = messageRepository.streamByPhoneNumber(HOT_NUMBER, firstPage, PAGE_SIZE)) {
+                return stream.limit(PAGE_SIZE).toList();
+            }
+        });
+
+        System.out.printf("%nPhone history benchmark, %,d rows, %d iterations%n", ROWS, ITERATIONS);
+        System.out.printf("  old    : %10.2f ms/op%n", oldMillis);
+        System.out.printf("  page   : %10.2f ms/op (%.0fx)%n", pageMillis, oldMillis / pageMillis);
+        System.out.printf("  stream : %10.2f ms/op (%.0fx)%n", streamMillis, oldMillis / streamMillis);
+
+        assertTrue(pageMillis < oldMillis, "Single query should beat two full lists merged in memory");
+    }
+
+    /**
+     * Runs the query in its own transaction, first half of the iterations is warm-up.
+     *
+     * @return average milliseconds per operation (measured half)
+     */
+    private double measure(String name, Supplier<List<Message>> query) {
+        long total = 0;
+        for (int i = 0; i < ITERATIONS * 2; i++) {
+            long start = System.nanoTime();
+            List<Message> page = QuarkusTransaction.requiringNew().call(query::get);
+            if (i >= ITERATIONS) {
+                total += System.nanoTime() - start;
+            }
+            assertEquals(PAGE_SIZE, page.size(), name);
+        }
+        return total / (ITERATIONS * 1_000_000.0);
+    }
+
+    private void seed() throws SQLException {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        String sql = "INSERT INTO messages (id, source_number, source_e164, destination_number, destination_e164,"
+            + " message_content, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 'DELIVERED', ?, ?)";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < ROWS; i++) {
+                long source = 15_551_000_000L + random.nextInt(100_000);
+                long destination = 16_661_000_000L + random.nextInt(100_000);
+                int hot = random.nextInt(100);
+                if (hot == 0) {
+                    source = HOT_NUMBER;
+                } else if (hot == 1) {
+                    destination = HOT_NUMBER;
+                }
+                Timestamp createdAt = Timestamp.valueOf(start.plusSeconds(random.nextInt(365 * 24 * 3600)));
+
+                insert.setLong(1, ID_OFFSET + i);
+                insert.setString(2, PhoneNumbers.format(source));
+                insert.setLong(3, source);
+                insert.setString(4, PhoneNumbers.format(destination));
+                insert.setLong(5, destination);
+                insert.setString(6, "Benchmark message " + i);
+                insert.setTimestamp(7, createdAt);
+                insert.setTimestamp(8, createdAt);
+                insert.addBatch();
+
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    @AfterEach
+    void cleanUp() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM messages WHERE id >= " + ID_OFFSET);
+        }
+    }
+
+    /**
+     * Own application instance (fresh schema), without the outbox relay polling.
+     */
+    public static class BenchmarkProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("sms.outbox.relay.enabled", "false");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sms.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * A batch goes through the sender rate limit item by item: the items
+ * over the burst of their sender are rejected, the rest is sent.
+ */
+@QuarkusTest
+@TestProfile(BatchRateLimitTest.SmallBurstProfile.class)
+class BatchRateLimitTest {
+
+    private static final String FLOODING_SENDER = "+306912340001";
+    private static final String OTHER_SENDER = "+306912340002";
+
+    @Test
+    void itemsOverTheSenderBurstAreRejected() {
+        List<Map<String, String>> batch = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            batch.add(item(FLOODING_SENDER, "Flood " + i));
+        }
+        batch.add(item(OTHER_SENDER, "Other 1"));
+        batch.add(item(OTHER_SENDER, "Other 2"));
+
+        given()
+            .contentType("application/json")
+            .body(batch)
+            .when().post("/api/sms/send/batch")
+            .then()
+            .statusCode(200)
+            .body("accepted", is(7))
+            .body("rejected", is(3))
+            .body("results[4].outcome", is("ACCEPTED"))
+            .body("results[5].outcome", is("REJECTED"))
+            .body("results[5].errors", hasItem("Rate limit exceeded for sender"))
+            .body("results[7].outcome", is("REJECTED"))
+            .body("results[8].outcome", is("ACCEPTED"))
+            .body("results[9].outcome", is("ACCEPTED"));
+    }
+
+    private static Map<String, String> item(String sourceNumber, String content) {
+        return Map.of(
+            "sourceNumber", sourceNumber,
+            "destinationNumber", "+306987654321",
+            "content", content);
+    }
+
+    /**
+     * Bursts of 5 per sender, refilled too slowly to matter during the test.
+     */
+    public static class SmallBurstProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "sms.rate-limit.sender.rate", "1",
+                "sms.rate-limit.sender.burst", "5",
+                "sms.batch.chunk-size", "3");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.sms.service;
+
+import com.sms.model.Message;
+import com.sms.model.MessageStatus;
+import com.sms.repository.MessageRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The re-drive requeues exactly the FAILED messages of the time range,
+ * with the ID span split over several workers and many small chunks.
+ */
+@QuarkusTest
+@TestProfile(FailedMessageRedriveTest.SmallChunksProfile.class)
+class FailedMessageRedriveTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @Inject
+    MessageRepository messageRepository;
+
+    @Test
+    void requeuesFailedMessagesOfTheRange() throws InterruptedException {
+        List<Long> failed = insert(100, MessageStatus.FAILED, FROM);
+        List<Long> failedBefore = insert(10, MessageStatus.FAILED, FROM.minusMinutes(1));
+        List<Long> delivered = insert(10, MessageStatus.DELIVERED, FROM);
+
+        given()
+            .contentType("application/json")
+            .body("{\"from\":\"" + FROM + "\",\"to\":\"" + TO + "\"}")
+            .when().post("/api/admin/redrive")
+            .then()
+            .statusCode(202);
+        awaitRedrive();
+
+        given()
+            .when().get("/api/admin/redrive")
+            .then()
+            .statusCode(200)
+            .body("state", is("COMPLETED"))
+            .body("requeued", is(100));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (Long id : failed) {
+                Message message = messageRepository.findById(id);
+                assertEquals(MessageStatus.PENDING, message.status);
+                assertNull(message.errorMessage);
+                assertEquals(0, message.attempts.intValue());
+            }
+            failedBefore.forEach(id -> assertEquals(MessageStatus.FAILED, messageRepository.findById(id).status));
+            delivered.forEach(id -> assertEquals(MessageStatus.DELIVERED, messageRepository.findById(id).status));
+        });
+    }
+
+    private List<Long> insert(int count, MessageStatus status, LocalDateTime createdAt) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Message message = new Message("+306912345678", "+306987654321", "Redrive " + i);
+                message.status = status;
+                message.errorMessage = status == MessageStatus.FAILED ? "Network timeout" : null;
+                message.attempts = 4;
+                message.createdAt = createdAt.plusSeconds(i);
+                messageRepository.persist(message);
+                ids.add(message.id);
+            }
+            return ids;
+        });
+    }
+
+    private void awaitRedrive() throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            String state = given().when().get("/api/admin/redrive").then().extract().path("state");
+            if (!"RUNNING".equals(state)) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * 120 rows over 3 workers in chunks of 7 IDs, no rate limit.
+     */
+    public static class SmallChunksProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "sms.redrive.parallelism", "3",
+                "sms.redrive.chunk-size", "7",
+                "sms.redrive.rate", "0");
+        }
+    }
+}
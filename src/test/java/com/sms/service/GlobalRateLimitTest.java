@@ -0,0 +1,78 @@
+package com.sms.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * With both limits enabled, a message the global limit rejects doesn't
+ * use up a token of its sender: once the global limit has refilled, the
+ * sender can still send the rest of its burst.
+ */
+@QuarkusTest
+@TestProfile(GlobalRateLimitTest.BothLimitsProfile.class)
+class GlobalRateLimitTest {
+
+    private static final String SENDER = "+306912340003";
+
+    @Test
+    void globalRejectionDoesNotSpendSenderTokens() throws InterruptedException {
+        given()
+            .contentType("application/json")
+            .body(batch(5))
+            .when().post("/api/sms/send/batch")
+            .then()
+            .statusCode(200)
+            .body("accepted", is(3))
+            .body("results[3].outcome", is("REJECTED"))
+            .body("results[3].errors", hasItem("Service rate limit exceeded"))
+            .body("results[4].outcome", is("REJECTED"));
+
+        // Long enough for the global burst to refill, not for the sender's
+        Thread.sleep(700);
+
+        // 2 of the sender's 5 tokens left: the 2 global rejections were given back
+        given()
+            .contentType("application/json")
+            .body(batch(2))
+            .when().post("/api/sms/send/batch")
+            .then()
+            .statusCode(200)
+            .body("accepted", is(2))
+            .body("rejected", is(0));
+    }
+
+    private static List<Map<String, String>> batch(int size) {
+        List<Map<String, String>> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            batch.add(Map.of(
+                "sourceNumber", SENDER,
+                "destinationNumber", "+306987654321",
+                "content", "Message " + i));
+        }
+        return batch;
+    }
+
+    /**
+     * A sender burst of 5 refilled once per second, a global burst of 3
+     * refilled every 200ms.
+     */
+    public static class BothLimitsProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "sms.rate-limit.sender.rate", "1",
+                "sms.rate-limit.sender.burst", "5",
+                "sms.rate-limit.global.rate", "5",
+                "sms.rate-limit.global.burst", "3");
+        }
+    }
+}